@@ -0,0 +1,18 @@
+package fr.se2eend.backend.cluster;
+
+/**
+ * Notification received from another backend instance, republished as a local application event.
+ *
+ * @param topic   what changed (e.g. {@code settings}), or {@link #RESYNC} when notifications may
+ *                have been missed and every cache should reload
+ * @param payload optional detail (e.g. the changed key), may be empty
+ */
+public record ClusterEvent(String topic, String payload) {
+
+    public static final String RESYNC = "*";
+
+    /** Whether a listener caching data for the given topic should refresh. */
+    public boolean concerns(String cacheTopic) {
+        return RESYNC.equals(topic) || cacheTopic.equals(topic);
+    }
+}
@@ -0,0 +1,145 @@
+package fr.se2eend.backend.cluster;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Cross-instance invalidation over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * {@link #publish} sends a message on a shared channel; every other instance receives it on a
+ * dedicated connection (outside the pool) and republishes it locally as a {@link ClusterEvent}.
+ * After a lost connection a {@link ClusterEvent#RESYNC} event is published since notifications
+ * sent in the meantime are gone. On other databases (H2 in tests) this is a no-op and caches rely
+ * on their periodic checks.
+ */
+@Component
+@Slf4j
+public class ClusterNotifier {
+
+    private static final String CHANNEL = "se2eend_cluster";
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterNotifier(JdbcTemplate jdbcTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${spring.datasource.url}") String url,
+                           @Value("${spring.datasource.username:}") String username,
+                           @Value("${spring.datasource.password:}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    public boolean isEnabled() {
+        return url.startsWith("jdbc:postgresql:");
+    }
+
+    /**
+     * Notify the other instances. Inside a transaction the notification is only delivered on commit.
+     */
+    public void publish(String topic, String payload) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class,
+                    CHANNEL, nodeId + "|" + topic + "|" + (payload == null ? "" : payload));
+        } catch (RuntimeException e) {
+            // Peers will catch up through their periodic checks.
+            log.warn("Failed to publish cluster notification {}: {}", topic, e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cluster-notifications");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(POLL_TIMEOUT_MS);
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    eventPublisher.publishEvent(new ClusterEvent(ClusterEvent.RESYNC, ""));
+                }
+                reconnecting = true;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster notification listener disconnected, retrying in {} ms: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(new ClusterEvent(parts[1], parts.length > 2 ? parts[2] : ""));
+        } catch (RuntimeException e) {
+            log.error("Cluster event listener failed for {}", message, e);
+        }
+    }
+}
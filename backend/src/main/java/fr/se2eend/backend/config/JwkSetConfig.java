@@ -0,0 +1,115 @@
+package fr.se2eend.backend.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keycloak signing keys, kept warm so that fetching them never happens on a request thread.
+ * <p>
+ * Spring's default JWK source fetches the key set lazily, on the first request after it expired.
+ * The decoder defined here uses a Nimbus source instead, fetched once the application is ready,
+ * then refreshed in the background {@code refresh-ahead} before each expiry; a failed refresh keeps
+ * serving the cached keys. Algorithms, issuer and audiences are read from the usual
+ * {@code spring.security.oauth2.resourceserver.jwt} properties.
+ */
+@Configuration
+@Slf4j
+public class JwkSetConfig {
+
+    @Bean
+    public JWKSource<SecurityContext> keycloakJwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${security.jwks.lifespan:10m}") Duration lifespan,
+            @Value("${security.jwks.refresh-ahead:1m}") Duration refreshAhead,
+            @Value("${security.jwks.timeout:5s}") Duration timeout) {
+        int timeoutMs = (int) timeout.toMillis();
+        try {
+            return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(),
+                            new DefaultResourceRetriever(timeoutMs, timeoutMs, 512 * 1024))
+                    .cache(lifespan.toMillis(), timeout.toMillis())
+                    .refreshAheadCache(refreshAhead.toMillis(), true)
+                    .outageTolerant(lifespan.toMillis())
+                    .build();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid JWK set URI: " + jwkSetUri, e);
+        }
+    }
+
+    @Bean
+    public JwtDecoder keycloakJwtDecoder(
+            JWKSource<SecurityContext> keycloakJwkSource,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jws-algorithms:RS256}") List<String> jwsAlgorithms,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuerUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.audiences:}") List<String> audiences) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSource(keycloakJwkSource)
+                .jwsAlgorithms(algorithms -> jwsAlgorithms.forEach(name -> algorithms.add(signatureAlgorithm(name))))
+                .build();
+
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(issuerUri.isBlank() ? JwtValidators.createDefault() : JwtValidators.createDefaultWithIssuer(issuerUri));
+        List<String> expectedAudiences = audiences.stream().filter(audience -> !audience.isBlank()).toList();
+        if (!expectedAudiences.isEmpty()) {
+            validators.add(new JwtClaimValidator<Collection<String>>(JwtClaimNames.AUD,
+                    audience -> audience != null && !Collections.disjoint(audience, expectedAudiences)));
+        }
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+        return decoder;
+    }
+
+    /**
+     * Loads the key set once so the scheduled refreshes start; Keycloak may not be up yet. Skipped
+     * when another decoder is in use.
+     */
+    @EventListener
+    public void prefetch(ApplicationReadyEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        if (context.getBean(JwtDecoder.class) != context.getBean("keycloakJwtDecoder")) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        JWKSource<SecurityContext> jwkSource = context.getBean("keycloakJwkSource", JWKSource.class);
+        try {
+            int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+            log.info("Fetched {} signing key(s) from Keycloak", keys);
+        } catch (KeySourceException e) {
+            log.warn("Could not prefetch signing keys from Keycloak, will retry on first request: {}", e.getMessage());
+        }
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String name) {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.from(name.trim());
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Unsupported JWS algorithm: " + name);
+        }
+        return algorithm;
+    }
+}
@@ -9,44 +9,38 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
 
 /**
  * Converts Keycloak JWT tokens to Spring Security Authentication tokens.
- * Extracts roles from both realm_access and resource_access claims.
+ * Extracts scopes ({@code SCOPE_}, through Spring's converter) and realm roles ({@code ROLE_}).
+ * <p>
+ * Runs on every authenticated request, so it avoids streams; the expensive part, verifying the
+ * token, is skipped for repeated tokens by {@link CachingJwtDecoder}.
  */
 public class KeycloakJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
-    private final JwtGrantedAuthoritiesConverter defaultGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-
+    private final JwtGrantedAuthoritiesConverter scopesConverter = new JwtGrantedAuthoritiesConverter();
 
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
-        Collection<GrantedAuthority> authorities = Stream.concat(
-                defaultGrantedAuthoritiesConverter.convert(jwt).stream(),
-                extractResourceRoles(jwt).stream()
-        ).collect(Collectors.toSet());
-
+        Set<GrantedAuthority> authorities = new HashSet<>(scopesConverter.convert(jwt));
+        addRealmRoles(jwt, authorities);
         return new JwtAuthenticationToken(jwt, authorities);
     }
 
     /**
      * Extract roles from Keycloak JWT token.
-     * Keycloak stores roles in realm_access.roles and resource_access.<client>.roles
+     * Keycloak stores realm roles in realm_access.roles.
      */
-    private Collection<GrantedAuthority> extractResourceRoles(Jwt jwt) {
+    private static void addRealmRoles(Jwt jwt, Set<GrantedAuthority> authorities) {
         Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-        Collection<String> roles;
-
-        if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?>) {
-            roles = (Collection<String>) realmAccess.get("roles");
-            return roles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                    .collect(Collectors.toSet());
+        if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?> roles) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+            }
         }
-
-        return java.util.Collections.emptySet();
     }
 }
@@ -0,0 +1,74 @@
+package fr.se2eend.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Sends the connections of read-only transactions to the replica, everything else to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so
+ * that the connection is only picked at the first statement, once the transaction is set up.
+ * <p>
+ * Read your writes: a user who wrote through this instance (a read-write transaction under their
+ * JWT) reads from the primary for {@code readYourWrites}, which should cover the replica lag. The
+ * window is per instance, so it only holds for the following requests that reach the same one.
+ * <p>
+ * Reads whose result outlives the request (shared caches filled on a miss or reloaded after another
+ * instance's change notification) must not see the replica's lag: they run in {@link #onPrimary}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWrites)
+                .build();
+    }
+
+    /**
+     * Run {@code action} with every connection it opens taken from the primary. Has no effect on a
+     * transaction that already holds its connection, so call it outside any transaction. Without a
+     * replica, it only runs the action.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean outer = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (outer == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PRIMARY_ONLY.get() != null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        UUID user = SecurityUtils.currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+            return Target.PRIMARY;
+        }
+        return user != null && recentWriters.getIfPresent(user) != null ? Target.PRIMARY : Target.REPLICA;
+    }
+}
@@ -1,5 +1,8 @@
 package fr.se2eend.backend.config;
 
+import fr.se2eend.backend.ratelimit.RateLimitFilter;
+import fr.se2eend.backend.ratelimit.RateLimiter;
+import fr.se2eend.backend.service.InstanceSettingsService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,10 +15,13 @@ import org.springframework.security.config.annotation.web.configurers.HeadersCon
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.Arrays;
 import java.util.List;
@@ -32,15 +38,29 @@ public class SecurityConfig {
     @Value("${security.keycloak-url}")
     private String keycloakUrl;
 
+    @Value("${rate-limit.trusted-proxies}")
+    private String trustedProxies;
+
+    @Value("${security.jwt-cache.max-size:10000}")
+    private long jwtCacheMaxSize;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt-strength:10}") int strength) {
+        // Applies to new hashes only: each stored hash carries its own cost.
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RateLimiter rateLimiter,
+                                                   InstanceSettingsService instanceSettingsService,
+                                                   JsonMapper jsonMapper,
+                                                   JwtDecoder jwtDecoder) {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                // Before authentication, so throttled requests cost no token validation.
+                .addFilterBefore(new RateLimitFilter(rateLimiter, instanceSettingsService, jsonMapper, trustedProxies),
+                        BearerTokenAuthenticationFilter.class)
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
@@ -50,7 +70,9 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(new KeycloakJwtAuthenticationConverter()))
+                        .jwt(jwt -> jwt
+                                .decoder(new CachingJwtDecoder(jwtDecoder, jwtCacheMaxSize))
+                                .jwtAuthenticationConverter(new KeycloakJwtAuthenticationConverter()))
                 )
                 .headers(headers -> headers
                         .contentSecurityPolicy(csp -> csp
@@ -83,7 +105,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(List.of("Content-Length"));
+        configuration.setExposedHeaders(List.of("Content-Length", "X-Download-Token", "X-Next-Cursor", "Retry-After"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/api/**", configuration);
@@ -1,21 +1,44 @@
 package fr.se2eend.backend.controller;
 
+import fr.se2eend.backend.dto.CursorPage;
 import fr.se2eend.backend.dto.DeletedSendDto;
 import fr.se2eend.backend.dto.PagedResponse;
 import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.dto.UsageHourDto;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.ratelimit.RateLimiter;
+import fr.se2eend.backend.service.AccessIdFilter;
+import fr.se2eend.backend.service.AdminExportService;
 import fr.se2eend.backend.service.AdminService;
+import fr.se2eend.backend.service.FlightRecordingService;
 import fr.se2eend.backend.service.InstanceSettingsService;
+import fr.se2eend.backend.service.PasswordVerifier;
+import fr.se2eend.backend.service.SendMetadataCache;
+import fr.se2eend.backend.service.StorageLayoutMigrationService;
 import fr.se2eend.backend.service.StorageMetricsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -25,8 +48,15 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AdminExportService adminExportService;
     private final StorageMetricsService storageMetricsService;
+    private final StorageLayoutMigrationService storageLayoutMigrationService;
     private final InstanceSettingsService instanceSettingsService;
+    private final FlightRecordingService flightRecordingService;
+    private final SendMetadataCache sendMetadataCache;
+    private final AccessIdFilter accessIdFilter;
+    private final RateLimiter rateLimiter;
+    private final PasswordVerifier passwordVerifier;
 
     @GetMapping("/sends")
     @PreAuthorize("hasRole('admin')")
@@ -40,6 +70,46 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllSends(page, size, ownerSearch, status));
     }
 
+    @GetMapping(value = "/sends", params = "cursor")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(
+            summary = "Get sends by cursor (admin only)",
+            description = """
+            Keyset pagination, newest first: pass an empty `cursor` for the first page, then the
+            returned `nextCursor`. `count` is `exact`, `approximate` (exact up to 10,000, a lower
+            bound beyond, see `totalExact`) or `none`.
+            """
+    )
+    public ResponseEntity<CursorPage<SendResponseDto>> getSendsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String ownerSearch,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "approximate") String count
+    ) {
+        return ResponseEntity.ok(adminService.getSendsAfter(cursor, size, ownerSearch, status, count));
+    }
+
+    @GetMapping("/sends/export")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(
+            summary = "Export all sends (admin only)",
+            description = """
+            Streams every send matching the listing filters, newest first, as `ndjson` (one JSON
+            object per line, as in the listing) or `csv`. `gzip=true` returns a `.gz` file.
+            """
+    )
+    public ResponseEntity<StreamingResponseBody> exportSends(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String ownerSearch,
+            @RequestParam(required = false) String status
+    ) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        return export("sends", exportFormat, gzip,
+                out -> adminExportService.exportSends(ownerSearch, status, exportFormat, out));
+    }
+
     @GetMapping("/stats")
     @PreAuthorize("hasRole('admin')")
     @Operation(summary = "Get application statistics")
@@ -70,6 +140,43 @@ public class AdminController {
         return ResponseEntity.ok(storageMetricsService.getStorageMetrics());
     }
 
+    @PostMapping("/storage/layout-migration")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(
+            summary = "Start moving local files into the hash-sharded directory layout",
+            description = "Runs in the background on this instance; poll the GET endpoint for the outcome.")
+    public ResponseEntity<Map<String, Object>> startLayoutMigration(
+            @RequestParam(defaultValue = "4") int parallelism,
+            @RequestParam(defaultValue = "500") double movesPerSecond
+    ) {
+        return ResponseEntity.accepted().body(storageLayoutMigrationService.start(parallelism, movesPerSecond));
+    }
+
+    @GetMapping("/storage/layout-migration")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(summary = "Get the state of the last storage layout migration on this instance")
+    public ResponseEntity<Map<String, Object>> getLayoutMigration() {
+        return ResponseEntity.ok(storageLayoutMigrationService.status());
+    }
+
+    @GetMapping("/cache/metrics")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(summary = "Get in-memory cache metrics")
+    public ResponseEntity<Map<String, Object>> getCacheMetrics() {
+        return ResponseEntity.ok(Map.of(
+                "sends", sendMetadataCache.metrics(),
+                "accessIdFilter", accessIdFilter.metrics()));
+    }
+
+    @GetMapping("/rate-limit/metrics")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(summary = "Get rate limiter and password verification pool metrics")
+    public ResponseEntity<Map<String, Object>> getRateLimitMetrics() {
+        return ResponseEntity.ok(Map.of(
+                "buckets", rateLimiter.metrics(),
+                "passwordVerifier", passwordVerifier.metrics()));
+    }
+
     @PostMapping("/cleanup")
     @PreAuthorize("hasRole('admin')")
     @Operation(summary = "Run cleanup of expired/revoked sends")
@@ -79,12 +186,101 @@ public class AdminController {
 
     @GetMapping("/deleted-sends")
     @PreAuthorize("hasRole('admin')")
-    @Operation(summary = "Get paginated audit log of deleted sends")
+    @Operation(
+            summary = "Get paginated audit log of deleted sends",
+            description = """
+            Newest first. Optional filters: `ownerId`, `reason`, and a `from` (inclusive) / `to`
+            (exclusive) range on the deletion time, which limits the query to those months.
+            """
+    )
     public ResponseEntity<PagedResponse<DeletedSendDto>> getDeletedSends(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) UUID ownerId,
+            @RequestParam(required = false) DeleteReason reason,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
-        return ResponseEntity.ok(adminService.getDeletedSends(page, size));
+        return ResponseEntity.ok(adminService.getDeletedSends(page, size, ownerId, reason, from, to));
+    }
+
+    @GetMapping("/deleted-sends/export")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(
+            summary = "Export the audit log of deleted sends (admin only)",
+            description = """
+            Streams every audit record matching the listing filters, newest first, as `ndjson` or
+            `csv`. `gzip=true` returns a `.gz` file.
+            """
+    )
+    public ResponseEntity<StreamingResponseBody> exportDeletedSends(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) UUID ownerId,
+            @RequestParam(required = false) DeleteReason reason,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        return export("deleted-sends", exportFormat, gzip,
+                out -> adminExportService.exportDeletedSends(ownerId, reason, from, to, exportFormat, out));
+    }
+
+    /** Attachment {@code <name>.<ext>[.gz]}, written as rows are read. */
+    private static ResponseEntity<StreamingResponseBody> export(String name, AdminExportService.Format format,
+                                                                boolean gzip, StreamingResponseBody body) {
+        String filename = name + "." + format.extension + (gzip ? ".gz" : "");
+        StreamingResponseBody content = !gzip ? body : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            body.writeTo(compressed);
+            compressed.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(content);
+    }
+
+    @GetMapping("/usage")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(
+            summary = "Get hourly usage (admin only)",
+            description = """
+            Pre-aggregated usage per hour, newest first: sends created, uploads completed, bytes in
+            and out, downloads, and deletions by reason. `from` (inclusive) and `to` (exclusive)
+            default to the last 30 days. `size` is at most 100.
+            """
+    )
+    public ResponseEntity<PagedResponse<UsageHourDto>> getUsage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size
+    ) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(adminService.getUsage(start, end, page, size));
+    }
+
+    @PostMapping("/diagnostics/recording")
+    @PreAuthorize("hasRole('admin')")
+    @Operation(summary = "Record a time-bounded JFR recording and download the .jfr file")
+    public ResponseEntity<InputStreamResource> recordFlight(
+            @RequestParam(defaultValue = "30") long durationSeconds
+    ) throws IOException, InterruptedException {
+        Path file = flightRecordingService.record(Duration.ofSeconds(durationSeconds));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(file.getFileName().toString())
+                .build());
+        headers.setContentLength(Files.size(file));
+
+        // The temporary file is removed as soon as the response stream is closed.
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
     }
 
     @GetMapping("/settings")
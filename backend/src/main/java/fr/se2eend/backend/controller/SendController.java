@@ -1,5 +1,6 @@
 package fr.se2eend.backend.controller;
 
+import fr.se2eend.backend.dto.CursorPage;
 import fr.se2eend.backend.dto.SendRequestDto;
 import fr.se2eend.backend.dto.SendResponseDto;
 import fr.se2eend.backend.service.SendService;
@@ -20,15 +21,41 @@ import java.util.UUID;
 @Tag(name = "Send Controller", description = "Manage Send containers (metadata, expiration, etc.)")
 public class SendController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final SendService sendService;
 
     @Operation(
             summary = "List all Sends",
-            description = "Retrieve all existing Send containers. Each Send groups one or more encrypted files."
+            description = """
+            Retrieve the caller's newest Send containers, at most `sends.list-limit` (1000 by
+            default). Each Send groups one or more encrypted files. When the list is cut, the
+            `X-Next-Cursor` header holds the `cursor` that lists the older ones.
+            """
     )
     @GetMapping
     public ResponseEntity<List<SendResponseDto>> getAllSends() {
-        return ResponseEntity.ok(sendService.findAll());
+        CursorPage<SendResponseDto> sends = sendService.findAll();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (sends.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, sends.nextCursor());
+        }
+        return response.body(sends.content());
+    }
+
+    @Operation(
+            summary = "List my Sends by cursor",
+            description = """
+            Keyset pagination of the caller's Sends, newest first: pass an empty `cursor` for the
+            first page, then the returned `nextCursor` until it is null. `size` is at most 100.
+            """
+    )
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<SendResponseDto>> getSendsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(sendService.findPage(cursor, size));
     }
 
     @Operation(
@@ -26,13 +26,16 @@ public class SendDownloadController {
         - If the Send contains **one file**, returns it directly.
         - If it contains **multiple files**, returns a ZIP archive.
         Expiration, revocation, and download limits are enforced automatically.
+        For password-protected Sends, a successful password check returns an `X-Download-Token`
+        header; sending it back instead of `X-Send-Password` skips the password check until it expires.
         """
     )
     @GetMapping("/{accessId}/download")
     public ResponseEntity<InputStreamResource> download(
             @PathVariable String accessId,
-            @RequestHeader(value = "X-Send-Password", required = false) String password) throws IOException {
-        DownloadStream stream = sendDownloadService.downloadByAccessId(accessId, password);
+            @RequestHeader(value = "X-Send-Password", required = false) String password,
+            @RequestHeader(value = "X-Download-Token", required = false) String downloadToken) throws IOException {
+        DownloadStream stream = sendDownloadService.downloadByAccessId(accessId, password, downloadToken);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -46,6 +49,9 @@ public class SendDownloadController {
         if (stream.sizeBytes() != null) {
             headers.setContentLength(stream.sizeBytes());
         }
+        if (stream.downloadToken() != null) {
+            headers.set("X-Download-Token", stream.downloadToken());
+        }
 
         return ResponseEntity
                 .ok()
@@ -0,0 +1,17 @@
+package fr.se2eend.backend.dto;
+
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated listing.
+ *
+ * @param nextCursor    pass as {@code cursor} to get the next page, {@code null} on the last page
+ * @param totalElements matching rows, {@code null} when not counted
+ * @param totalExact    {@code false} when {@code totalElements} is a lower bound (approximate count)
+ */
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor,
+        Long totalElements,
+        boolean totalExact
+) {}
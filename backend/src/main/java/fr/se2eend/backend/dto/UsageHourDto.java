@@ -0,0 +1,23 @@
+package fr.se2eend.backend.dto;
+
+import fr.se2eend.backend.model.enums.DeleteReason;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Usage of one hour (server local time), summed over all instances.
+ *
+ * @param bytesIn  encrypted bytes received, counted as chunks arrive
+ * @param bytesOut encrypted bytes of the files whose download was started
+ * @param deleted  sends deleted, by reason
+ */
+public record UsageHourDto(
+        LocalDateTime hourStart,
+        long sendsCreated,
+        long uploadsCompleted,
+        long bytesIn,
+        long downloads,
+        long bytesOut,
+        Map<DeleteReason, Long> deleted
+) {}
@@ -179,6 +179,66 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(body);
     }
 
+    @ExceptionHandler(RecordingInProgressException.class)
+    public ResponseEntity<ApiError> handleRecordingInProgress(RecordingInProgressException ex) {
+        log.info("Recording rejected (cid={}): {}", cid(), ex.getMessage());
+        ApiError body = ApiError.of(
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.code().name(),
+                ex.getMessage(),
+                cid(),
+                List.of()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(StorageMigrationInProgressException.class)
+    public ResponseEntity<ApiError> handleStorageMigrationInProgress(StorageMigrationInProgressException ex) {
+        log.info("Storage migration rejected (cid={}): {}", cid(), ex.getMessage());
+        ApiError body = ApiError.of(
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.code().name(),
+                ex.getMessage(),
+                cid(),
+                List.of()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(PasswordVerificationBusyException.class)
+    public ResponseEntity<ApiError> handlePasswordVerificationBusy(PasswordVerificationBusyException ex) {
+        log.warn("Password verification shed (cid={}): {}", cid(), ex.getMessage());
+        ApiError body = ApiError.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.code().name(),
+                ex.getMessage(),
+                cid(),
+                List.of()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    @ExceptionHandler(StorageBusyException.class)
+    public ResponseEntity<ApiError> handleStorageBusy(StorageBusyException ex) {
+        log.warn("Upload deferred (cid={}): {}", cid(), ex.getMessage());
+        ApiError body = ApiError.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.code().name(),
+                ex.getMessage(),
+                cid(),
+                List.of()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(body);
+    }
+
     private static String humanize(FieldError fe) {
         String defaultMsg = fe.getDefaultMessage();
         return defaultMsg != null ? defaultMsg : "is invalid";
@@ -0,0 +1,16 @@
+package fr.se2eend.backend.exception;
+
+import fr.se2eend.backend.exception.enums.ErrorCode;
+
+public class PasswordVerificationBusyException extends RuntimeException {
+    private final ErrorCode code;
+
+    public PasswordVerificationBusyException() {
+        super("Too many password checks in progress, please retry shortly");
+        this.code = ErrorCode.PASSWORD_VERIFICATION_BUSY;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+}
@@ -0,0 +1,16 @@
+package fr.se2eend.backend.exception;
+
+import fr.se2eend.backend.exception.enums.ErrorCode;
+
+public class RecordingInProgressException extends RuntimeException {
+    private final ErrorCode code;
+
+    public RecordingInProgressException() {
+        super("A diagnostics recording is already in progress");
+        this.code = ErrorCode.RECORDING_IN_PROGRESS;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+}
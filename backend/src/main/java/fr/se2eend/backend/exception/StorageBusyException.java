@@ -0,0 +1,16 @@
+package fr.se2eend.backend.exception;
+
+import fr.se2eend.backend.exception.enums.ErrorCode;
+
+public class StorageBusyException extends RuntimeException {
+    private final ErrorCode code;
+
+    public StorageBusyException(String message) {
+        super(message);
+        this.code = ErrorCode.STORAGE_BUSY;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+}
@@ -0,0 +1,16 @@
+package fr.se2eend.backend.exception;
+
+import fr.se2eend.backend.exception.enums.ErrorCode;
+
+public class StorageMigrationInProgressException extends RuntimeException {
+    private final ErrorCode code;
+
+    public StorageMigrationInProgressException() {
+        super("A storage layout migration is already running");
+        this.code = ErrorCode.STORAGE_MIGRATION_IN_PROGRESS;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+}
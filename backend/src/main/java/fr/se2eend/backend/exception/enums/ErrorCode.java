@@ -14,4 +14,9 @@ public enum ErrorCode {
     UPLOAD_SESSION_NOT_FOUND,
     UPLOAD_INCOMPLETE,
     UPLOAD_SIZE_EXCEEDED,
+    RECORDING_IN_PROGRESS,
+    RATE_LIMITED,
+    PASSWORD_VERIFICATION_BUSY,
+    STORAGE_MIGRATION_IN_PROGRESS,
+    STORAGE_BUSY,
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package fr.se2eend.backend.model;
 import fr.se2eend.backend.model.enums.DeleteReason;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -17,7 +18,7 @@ import java.util.UUID;
 public class DeletedSend {
 
     @Id
-    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(name = "original_send_id", nullable = false)
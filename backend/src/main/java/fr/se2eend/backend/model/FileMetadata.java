@@ -3,6 +3,7 @@ package fr.se2eend.backend.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class FileMetadata {
 
     @Id
-    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -27,9 +28,14 @@ public class FileMetadata {
     @Column(nullable = false)
     private String filename;
 
-    @Column(name = "storage_path", nullable = false, length = 512)
+    /** Storage key; {@code null} when the payload is inline. */
+    @Column(name = "storage_path", length = 512)
     private String storagePath;
 
+    /** Encrypted payload kept in the row instead of object storage, for payloads under the inline threshold. */
+    @Column(name = "inline_content")
+    private byte[] inlineContent;
+
     @Column(name = "size_bytes", nullable = false)
     private long sizeBytes;
 
@@ -38,4 +44,8 @@ public class FileMetadata {
 
     @Column(name = "chunk_size")
     private Integer chunkSize;
+
+    public boolean isInline() {
+        return storagePath == null;
+    }
 }
\ No newline at end of file
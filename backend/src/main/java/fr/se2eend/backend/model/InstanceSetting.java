@@ -16,4 +16,13 @@ public class InstanceSetting {
 
     @Column(nullable = false)
     private String value;
+
+    /** Bumped on every update, so that two instances saving the same setting do not overwrite each other. */
+    @Version
+    private Long version;
+
+    public InstanceSetting(String key, String value) {
+        this.key = key;
+        this.value = value;
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import fr.se2eend.backend.model.enums.SendType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -17,8 +18,9 @@ import java.util.UUID;
 @Builder
 public class Send {
 
+    /** Time-ordered (UUIDv7), like every generated key: new rows land at the end of the index. */
     @Id
-    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(name = "access_id", unique = true, nullable = false, length = 22)
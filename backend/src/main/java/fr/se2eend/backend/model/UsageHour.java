@@ -0,0 +1,77 @@
+package fr.se2eend.backend.model;
+
+import fr.se2eend.backend.model.enums.UsageMetric;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usage totals of one hour, summed over all instances. Written only by the usage aggregator's
+ * periodic flush, which adds its deltas to the row.
+ */
+@Entity
+@Table(name = "usage_hourly")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageHour {
+
+    @Id
+    @Column(name = "hour_start")
+    private LocalDateTime hourStart;
+
+    @Column(name = "sends_created", nullable = false)
+    private long sendsCreated;
+
+    @Column(name = "uploads_completed", nullable = false)
+    private long uploadsCompleted;
+
+    @Column(name = "bytes_in", nullable = false)
+    private long bytesIn;
+
+    @Column(nullable = false)
+    private long downloads;
+
+    @Column(name = "bytes_out", nullable = false)
+    private long bytesOut;
+
+    @Column(name = "deleted_expired", nullable = false)
+    private long deletedExpired;
+
+    @Column(name = "deleted_revoked", nullable = false)
+    private long deletedRevoked;
+
+    @Column(name = "deleted_exhausted", nullable = false)
+    private long deletedExhausted;
+
+    @Column(name = "deleted_manual", nullable = false)
+    private long deletedManual;
+
+    @Column(name = "deleted_user", nullable = false)
+    private long deletedUser;
+
+    public UsageHour(LocalDateTime hourStart) {
+        this.hourStart = hourStart;
+    }
+
+    /** Add {@code deltas}, indexed by {@link UsageMetric#ordinal()}. */
+    public void add(long[] deltas) {
+        for (UsageMetric metric : UsageMetric.values()) {
+            long delta = deltas[metric.ordinal()];
+            switch (metric) {
+                case SENDS_CREATED -> sendsCreated += delta;
+                case UPLOADS_COMPLETED -> uploadsCompleted += delta;
+                case BYTES_IN -> bytesIn += delta;
+                case DOWNLOADS -> downloads += delta;
+                case BYTES_OUT -> bytesOut += delta;
+                case DELETED_EXPIRED -> deletedExpired += delta;
+                case DELETED_REVOKED -> deletedRevoked += delta;
+                case DELETED_EXHAUSTED -> deletedExhausted += delta;
+                case DELETED_MANUAL -> deletedManual += delta;
+                case DELETED_USER -> deletedUser += delta;
+            }
+        }
+    }
+}
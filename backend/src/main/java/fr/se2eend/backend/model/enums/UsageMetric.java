@@ -0,0 +1,27 @@
+package fr.se2eend.backend.model.enums;
+
+/**
+ * Counters of the hourly usage rollup, one column of {@code usage_hourly} each.
+ */
+public enum UsageMetric {
+    SENDS_CREATED,
+    UPLOADS_COMPLETED,
+    BYTES_IN,
+    DOWNLOADS,
+    BYTES_OUT,
+    DELETED_EXPIRED,
+    DELETED_REVOKED,
+    DELETED_EXHAUSTED,
+    DELETED_MANUAL,
+    DELETED_USER;
+
+    public static UsageMetric deleted(DeleteReason reason) {
+        return switch (reason) {
+            case EXPIRED -> DELETED_EXPIRED;
+            case REVOKED -> DELETED_REVOKED;
+            case EXHAUSTED -> DELETED_EXHAUSTED;
+            case MANUAL -> DELETED_MANUAL;
+            case USER -> DELETED_USER;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package fr.se2eend.backend.monitoring;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted for every stored upload chunk (budget check + storage write + DB insert).
+ */
+@Name("fr.se2eend.ChunkUpload")
+@Label("Chunk Upload")
+@Category({"sE2EEnd", "Upload"})
+@Description("A single encrypted chunk received by a chunked upload session")
+@StackTrace(false)
+public class ChunkUploadEvent extends Event {
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Chunk Index")
+    public int chunkIndex;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
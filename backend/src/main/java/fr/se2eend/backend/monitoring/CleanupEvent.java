@@ -0,0 +1,27 @@
+package fr.se2eend.backend.monitoring;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted for every cleanup run (manual or scheduled).
+ */
+@Name("fr.se2eend.Cleanup")
+@Label("Cleanup")
+@Category({"sE2EEnd", "Maintenance"})
+@Description("Deletion of expired, revoked and exhausted sends")
+@StackTrace(false)
+public class CleanupEvent extends Event {
+
+    @Label("Deleted Sends")
+    public int deletedSends;
+
+    @Label("Deleted Files")
+    public int deletedFiles;
+
+    @Label("Freed Bytes")
+    @DataAmount
+    public long freedBytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,32 @@
+package fr.se2eend.backend.monitoring;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted for every download attempt of a send. The duration covers the checks
+ * (including the password hash verification, unless a download token was presented) and opening the storage stream, not the transfer.
+ */
+@Name("fr.se2eend.SendDownload")
+@Label("Send Download")
+@Category({"sE2EEnd", "Download"})
+@Description("Resolution, policy checks and storage open for a send download")
+@StackTrace(false)
+public class SendDownloadEvent extends Event {
+
+    @Label("Access ID")
+    public String accessId;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Password Protected")
+    public boolean passwordProtected;
+
+    @Label("Token Accepted")
+    @Description("Password check skipped thanks to a download token")
+    public boolean tokenAccepted;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
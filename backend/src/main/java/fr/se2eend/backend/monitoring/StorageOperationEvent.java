@@ -0,0 +1,31 @@
+package fr.se2eend.backend.monitoring;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted for every call into the configured {@code StorageService} backend.
+ * For {@code read}, the duration covers opening the stream only.
+ */
+@Name("fr.se2eend.StorageOperation")
+@Label("Storage Operation")
+@Category({"sE2EEnd", "Storage"})
+@Description("A save/read/delete/size call against the storage backend")
+@StackTrace(false)
+public class StorageOperationEvent extends Event {
+
+    @Label("Backend")
+    public String backend;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Storage Path")
+    public String storagePath;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,27 @@
+package fr.se2eend.backend.monitoring;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted when a chunked upload is finalized (chunk assembly into the final object).
+ */
+@Name("fr.se2eend.UploadComplete")
+@Label("Upload Complete")
+@Category({"sE2EEnd", "Upload"})
+@Description("Assembly of all chunks of an upload session into the final ciphertext object")
+@StackTrace(false)
+public class UploadCompleteEvent extends Event {
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Chunks")
+    public int chunks;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
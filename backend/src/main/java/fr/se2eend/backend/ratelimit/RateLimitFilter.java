@@ -0,0 +1,174 @@
+package fr.se2eend.backend.ratelimit;
+
+import fr.se2eend.backend.exception.ApiError;
+import fr.se2eend.backend.exception.enums.ErrorCode;
+import fr.se2eend.backend.logging.CorrelationIdFilter;
+import fr.se2eend.backend.service.InstanceSettingsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Throttles the public send endpoints: metadata lookup, download, and the password check that
+ * comes with a download. Each request takes a token from a per-client bucket for its route and
+ * from a bucket of that client for that send; downloads carrying a password also take one from a
+ * per-send bucket shared by all clients, against distributed guessing. The first empty one answers
+ * 429 with {@code Retry-After}. Limits are instance settings (requests per minute, 0 = unlimited),
+ * so they can be changed at runtime. The owner's lookup by send id is authenticated and not
+ * throttled here.
+ * <p>
+ * The client is the socket peer, or, when that peer is a trusted proxy (the bundled nginx), the
+ * nearest untrusted address in {@code X-Forwarded-For}.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String SEND_LOOKUP_SETTING = "rate_limit_send_lookup_per_minute";
+    public static final String DOWNLOAD_SETTING = "rate_limit_download_per_minute";
+    public static final String ACCESS_ID_SETTING = "rate_limit_access_id_per_minute";
+    public static final String PASSWORD_SETTING = "rate_limit_password_per_minute";
+
+    private static final String SENDS_PATH = "/api/v1/sends/";
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private final RateLimiter rateLimiter;
+    private final InstanceSettingsService instanceSettingsService;
+    private final JsonMapper jsonMapper;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           InstanceSettingsService instanceSettingsService,
+                           JsonMapper jsonMapper,
+                           String trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.instanceSettingsService = instanceSettingsService;
+        this.jsonMapper = jsonMapper;
+        this.trustedProxies = Arrays.stream(trustedProxies.split(","))
+                .map(String::trim)
+                .filter(cidr -> !cidr.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !request.getRequestURI().startsWith(SENDS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String[] segments = request.getRequestURI().substring(SENDS_PATH.length()).split("/");
+        boolean lookup = segments.length == 1 && !segments[0].isEmpty();
+        boolean download = segments.length == 2 && "download".equals(segments[1]);
+        if (!lookup && !download || lookup && isSendId(segments[0])) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String accessId = segments[0];
+        String client = clientAddress(request);
+        RateLimiter.Decision decision = download
+                ? acquire("download|" + client, DOWNLOAD_SETTING)
+                : acquire("lookup|" + client, SEND_LOOKUP_SETTING);
+        if (decision.allowed()) {
+            // Per client as well: a bucket shared by everyone would let anyone exhaust a link.
+            decision = acquire("send|" + client + "|" + accessId, ACCESS_ID_SETTING);
+        }
+        if (decision.allowed() && download && request.getHeader("X-Send-Password") != null) {
+            decision = acquire("password|" + accessId, PASSWORD_SETTING);
+        }
+
+        if (decision.allowed()) {
+            chain.doFilter(request, response);
+        } else {
+            log.info("Rate limited {} {} from {}", request.getMethod(), request.getRequestURI(), client);
+            reject(response, decision.retryAfterSeconds());
+        }
+    }
+
+    /** {@code GET /sends/{id}} with a UUID is the owner's lookup, not a public access ID. */
+    private static boolean isSendId(String segment) {
+        if (segment.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(segment);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private RateLimiter.Decision acquire(String key, String setting) {
+        return rateLimiter.tryAcquire(key, instanceSettingsService.getLong(setting, 0));
+    }
+
+    String clientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || !isTrustedProxy(address)) {
+            return address;
+        }
+        // Walk back from the proxy that connected to us; the first hop we don't trust is the client.
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            address = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        // IpAddressMatcher resolves host names; only hand it IP literals.
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            for (IpAddressMatcher matcher : trustedProxies) {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Malformed address.
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        ApiError body = ApiError.of(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                ErrorCode.RATE_LIMITED.name(),
+                "Too many requests, retry in " + retryAfterSeconds + " s",
+                MDC.get(CorrelationIdFilter.CORRELATION_ID),
+                List.of()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), body);
+    }
+}
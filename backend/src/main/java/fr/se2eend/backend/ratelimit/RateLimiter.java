@@ -0,0 +1,136 @@
+package fr.se2eend.backend.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by arbitrary strings, stored as a single timestamp each (GCRA).
+ * <p>
+ * A bucket is the "theoretical arrival time" of the next request: each accepted request pushes
+ * it one emission interval ({@code 1 min / limit}) forward, and a request is refused while it
+ * is more than a full bucket ahead of now. Updates are a CAS on that timestamp, so there is no
+ * lock. A bucket whose timestamp is in the past is full again and equivalent to an absent one,
+ * which is what makes eviction lossless: {@link #evictIdle} drops those, and the table is capped
+ * at {@code rate-limit.max-entries} keys. Keys arriving while it is full and still busy are
+ * refused until buckets refill, rather than let through untracked, so flooding the table with new
+ * keys cannot turn limiting off; they are counted in {@link #metrics}. The cost is that while a
+ * flood of addresses keeps the table full, every new key is refused: clients not seen before are
+ * locked out, only those that already have a bucket get through.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long SWEEP_SPACING_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_SPACING_NANOS);
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder refusedFull = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Outcome of {@link #tryAcquire}.
+     *
+     * @param retryAfterNanos time until the next request would be accepted, 0 when allowed
+     */
+    public record Decision(boolean allowed, long retryAfterNanos) {
+        static final Decision ALLOW = new Decision(true, 0);
+
+        public long retryAfterSeconds() {
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999));
+        }
+    }
+
+    public RateLimiter(@Value("${rate-limit.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Take one token from {@code key}'s bucket, which holds up to {@code perMinute} tokens and
+     * refills continuously at that rate. A limit of 0 or less means unlimited.
+     */
+    public Decision tryAcquire(String key, long perMinute) {
+        if (perMinute <= 0) {
+            return Decision.ALLOW;
+        }
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            refusedFull.increment();
+            return new Decision(false, SWEEP_SPACING_NANOS);
+        }
+        long interval = Math.max(1, MINUTE_NANOS / perMinute);
+        long tolerance = MINUTE_NANOS - interval;
+        while (true) {
+            long tat = bucket.get();
+            long start = tat - now > 0 ? tat : now;
+            long ahead = start - now;
+            if (ahead > tolerance) {
+                rejected.increment();
+                return new Decision(false, ahead - tolerance);
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                allowed.increment();
+                return Decision.ALLOW;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxEntries) {
+            // Sweep at most once a second, not on every new key of a flood.
+            long last = lastSweep.get();
+            if (now - last >= SWEEP_SPACING_NANOS && lastSweep.compareAndSet(last, now)) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxEntries) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they carry no state.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        int removed = before - buckets.size();
+        if (removed > 0) {
+            evicted.add(removed);
+            log.debug("Evicted {} idle rate-limit buckets", removed);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("buckets", buckets.size());
+        metrics.put("maxBuckets", maxEntries);
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("refusedFull", refusedFull.sum());
+        metrics.put("evicted", evicted.sum());
+        return metrics;
+    }
+}
@@ -2,8 +2,10 @@ package fr.se2eend.backend.repository;
 
 import fr.se2eend.backend.model.DeletedSend;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.UUID;
 
-public interface DeletedSendRepository extends JpaRepository<DeletedSend, UUID> {
+public interface DeletedSendRepository extends JpaRepository<DeletedSend, UUID>, JpaSpecificationExecutor<DeletedSend>,
+        DeletedSendRepositoryCustom {
 }
@@ -0,0 +1,16 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.dto.DeletedSendDto;
+import fr.se2eend.backend.model.DeletedSend;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface DeletedSendRepositoryCustom {
+
+    /**
+     * The audit records matching {@code spec}, newest first, read through a forward-only cursor
+     * {@code fetchSize} rows at a time. Must be consumed (and closed) inside a transaction.
+     */
+    Stream<DeletedSendDto> streamAudit(Specification<DeletedSend> spec, int fetchSize);
+}
@@ -0,0 +1,40 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.dto.DeletedSendDto;
+import fr.se2eend.backend.model.DeletedSend;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+class DeletedSendRepositoryImpl implements DeletedSendRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<DeletedSendDto> streamAudit(Specification<DeletedSend> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DeletedSendDto> query = cb.createQuery(DeletedSendDto.class);
+        Root<DeletedSend> root = query.from(DeletedSend.class);
+        // A projection, so that rows are not kept in the persistence context while streaming.
+        query.select(cb.construct(DeletedSendDto.class,
+                root.get("id"), root.get("originalSendId"), root.get("accessId"), root.get("ownerId"),
+                root.get("ownerName"), root.get("ownerEmail"), root.get("sendCreatedAt"),
+                root.get("deletedAt"), root.get("deleteReason"), root.get("totalSizeBytes")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("deletedAt")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,35 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.model.DeletedSend;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters of the audit log. A {@code deletedAt} range lets PostgreSQL skip the monthly
+ * partitions outside it (V15); owner and reason are served by their {@code (x, deleted_at)} indexes.
+ */
+public class DeletedSendSpecifications {
+
+    private DeletedSendSpecifications() {}
+
+    public static Specification<DeletedSend> ownedBy(UUID ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("ownerId"), ownerId);
+    }
+
+    public static Specification<DeletedSend> withReason(DeleteReason reason) {
+        return (root, query, cb) -> cb.equal(root.get("deleteReason"), reason);
+    }
+
+    /** Deleted at or after {@code from}. */
+    public static Specification<DeletedSend> deletedFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("deletedAt"), from);
+    }
+
+    /** Deleted strictly before {@code to}. */
+    public static Specification<DeletedSend> deletedBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("deletedAt"), to);
+    }
+}
@@ -1,13 +1,36 @@
 package fr.se2eend.backend.repository;
 
 import fr.se2eend.backend.model.FileMetadata;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface FileRepository extends JpaRepository<FileMetadata, UUID> {
     List<FileMetadata> findBySendId(UUID sendId);
+
+    /** Files still in the staging tier, oldest first. */
+    @Query("""
+            select new fr.se2eend.backend.repository.StagedFileRow(f.id, f.storagePath, s.accessId)
+            from FileMetadata f join f.send s
+            where f.storagePath like 'staging:%'
+            order by f.id
+            """)
+    List<StagedFileRow> findStaged(Limit limit);
+
+    /** Point a staged file at its promoted copy, unless it was deleted or changed meanwhile. */
+    @Modifying
+    @Query("update FileMetadata f set f.storagePath = :promoted where f.id = :id and f.storagePath = :staged")
+    int promote(@Param("id") UUID id, @Param("staged") String staged, @Param("promoted") String promoted);
+
+    /** Payload of an inline file; empty when the file does not exist or is in object storage. */
+    @Query("select f.inlineContent from FileMetadata f where f.id = :id and f.inlineContent is not null")
+    Optional<byte[]> findInlineContentById(@Param("id") UUID id);
 }
\ No newline at end of file
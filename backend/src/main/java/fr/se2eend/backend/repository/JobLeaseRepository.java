@@ -0,0 +1,54 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take over the lease if it has expired. Returns 0 when it is held, or does not exist yet.
+     */
+    @Modifying
+    @Query("""
+            update JobLease l set l.holder = :holder, l.acquiredAt = :now, l.expiresAt = :expiresAt
+            where l.name = :name and l.expiresAt <= :now
+            """)
+    int takeOver(@Param("name") String name, @Param("holder") String holder,
+                 @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Create the lease if it does not exist yet. Returns 0 when it already exists, whoever holds it.
+     */
+    @Modifying
+    @Query(value = """
+            insert into job_leases (name, holder, acquired_at, expires_at)
+            values (:name, :holder, :now, :expiresAt)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int create(@Param("name") String name, @Param("holder") String holder,
+               @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Extend a lease this holder has and that has not expired yet; 0 otherwise.
+     */
+    @Modifying
+    @Query("""
+            update JobLease l set l.expiresAt = :expiresAt
+            where l.name = :name and l.holder = :holder and l.expiresAt > :now
+            """)
+    int renew(@Param("name") String name, @Param("holder") String holder,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Move the expiry of a lease this holder still has; 0 when it was lost meanwhile.
+     */
+    @Modifying
+    @Query("update JobLease l set l.expiresAt = :expiresAt where l.name = :name and l.holder = :holder")
+    int expire(@Param("name") String name, @Param("holder") String holder,
+               @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -0,0 +1,31 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.model.enums.SendType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of an owner's send listing, read with its file in a single query instead of loading
+ * {@code Send} entities (whose eager {@code file} association costs one query per send).
+ * The file columns are {@code null} for a send without a file.
+ */
+public record SendListRow(
+        UUID id,
+        String accessId,
+        UUID ownerId,
+        String ownerName,
+        String ownerEmail,
+        String name,
+        SendType type,
+        LocalDateTime expiresAt,
+        Integer maxDownloads,
+        Integer downloadCount,
+        boolean passwordProtected,
+        boolean revoked,
+        LocalDateTime createdAt,
+        UUID fileId,
+        String filename,
+        Long sizeBytes,
+        Integer chunkSize
+) {}
@@ -1,8 +1,12 @@
 package fr.se2eend.backend.repository;
 
 import fr.se2eend.backend.model.Send;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -11,13 +15,63 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface SendRepository extends JpaRepository<Send, UUID>, JpaSpecificationExecutor<Send> {
+public interface SendRepository extends JpaRepository<Send, UUID>, JpaSpecificationExecutor<Send>, SendRepositoryCustom {
 
     Optional<Send> findByAccessId(String accessId);
 
+    /**
+     * Count one download if the send is still downloadable (not revoked, not expired, under its
+     * limit), atomically. Returns 0 when it is not, without changing anything.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Send s set s.downloadCount = s.downloadCount + 1
+            where s.id = :id
+              and s.revoked = false
+              and s.downloadCount < s.maxDownloads
+              and (s.expiresAt is null or s.expiresAt >= :now)
+            """)
+    int incrementDownloadCount(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
     List<Send> findByExpiresAtBefore(LocalDateTime dateTime);
 
+    /**
+     * Ids of the sends the cleanup deletes: expired, revoked or out of downloads.
+     */
+    @Query("""
+            select s.id from Send s
+            where s.expiresAt < :now or s.revoked = true or s.downloadCount >= s.maxDownloads
+            """)
+    List<UUID> findCleanupCandidateIds(@Param("now") LocalDateTime now);
+
     List<Send> findByOwnerId(UUID ownerId);
 
-    List<Send> findByOwnerIdOrderByCreatedAtDesc(UUID ownerId);
+    String OWNER_LISTING = """
+            select new fr.se2eend.backend.repository.SendListRow(
+                s.id, s.accessId, s.ownerId, s.ownerName, s.ownerEmail, s.name, s.type, s.expiresAt,
+                s.maxDownloads, s.downloadCount, s.passwordProtected, s.revoked, s.createdAt,
+                f.id, f.filename, f.sizeBytes, f.chunkSize)
+            from Send s left join s.file f
+            where s.ownerId = :ownerId
+            """;
+
+    /**
+     * An owner's sends with their file, newest first, in one query.
+     */
+    @Query(OWNER_LISTING + "order by s.createdAt desc, s.id desc")
+    List<SendListRow> findListingByOwnerId(@Param("ownerId") UUID ownerId, Limit limit);
+
+    /**
+     * Next page of {@link #findListingByOwnerId}: the sends strictly after {@code (createdAt, id)}.
+     * The redundant {@code <=} lets the database seek the {@code (owner_id, created_at, id)} index.
+     */
+    @Query(OWNER_LISTING + """
+              and s.createdAt <= :createdAt
+              and (s.createdAt < :createdAt or s.id < :id)
+            order by s.createdAt desc, s.id desc
+            """)
+    List<SendListRow> findListingByOwnerIdAfter(@Param("ownerId") UUID ownerId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") UUID id,
+                                                Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.model.Send;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface SendRepositoryCustom {
+
+    /**
+     * Count the sends matching {@code spec}, stopping at {@code limit}: cheap on large tables, where
+     * a full {@code count(*)} would visit every matching row.
+     */
+    long countUpTo(Specification<Send> spec, int limit);
+
+    /**
+     * Count the sends in each {@link SendSpecifications#withStatus} status at {@code now}, in one
+     * aggregate query.
+     */
+    SendStatusCounts countByStatus(LocalDateTime now);
+
+    /**
+     * The sends matching {@code spec} with their file, newest first, read through a forward-only
+     * cursor {@code fetchSize} rows at a time. Must be consumed (and closed) inside a transaction.
+     */
+    Stream<SendListRow> streamListing(Specification<Send> spec, int fetchSize);
+}
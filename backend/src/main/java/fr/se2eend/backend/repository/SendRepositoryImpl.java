@@ -0,0 +1,90 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.model.Send;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import fr.se2eend.backend.model.FileMetadata;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class SendRepositoryImpl implements SendRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long countUpTo(Specification<Send> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Send> root = query.from(Send.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().size();
+    }
+
+    @Override
+    public SendStatusCounts countByStatus(LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Send> root = query.from(Send.class);
+        query.select(cb.tuple(
+                cb.count(root),
+                countWhere(cb, SendSpecifications.status("active", root, cb, now)),
+                countWhere(cb, SendSpecifications.status("expired", root, cb, now)),
+                countWhere(cb, SendSpecifications.status("exhausted", root, cb, now)),
+                countWhere(cb, SendSpecifications.status("revoked", root, cb, now))));
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        return new SendStatusCounts(
+                row.get(0, Long.class),
+                valueOrZero(row.get(1, Long.class)),
+                valueOrZero(row.get(2, Long.class)),
+                valueOrZero(row.get(3, Long.class)),
+                valueOrZero(row.get(4, Long.class)));
+    }
+
+    @Override
+    public Stream<SendListRow> streamListing(Specification<Send> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SendListRow> query = cb.createQuery(SendListRow.class);
+        Root<Send> root = query.from(Send.class);
+        Join<Send, FileMetadata> file = root.join("file", JoinType.LEFT);
+        query.select(cb.construct(SendListRow.class,
+                root.get("id"), root.get("accessId"), root.get("ownerId"), root.get("ownerName"),
+                root.get("ownerEmail"), root.get("name"), root.get("type"), root.get("expiresAt"),
+                root.get("maxDownloads"), root.get("downloadCount"), root.get("passwordProtected"),
+                root.get("revoked"), root.get("createdAt"),
+                file.get("id"), file.get("filename"), file.get("sizeBytes"), file.get("chunkSize")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private static Expression<Long> countWhere(CriteriaBuilder cb, Predicate predicate) {
+        return cb.sum(cb.<Long>selectCase().when(predicate, 1L).otherwise(0L));
+    }
+
+    /** {@code sum} over an empty table is {@code null}. */
+    private static long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -1,41 +1,72 @@
 package fr.se2eend.backend.repository;
 
+import fr.se2eend.backend.dto.SendCursor;
 import fr.se2eend.backend.model.Send;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class SendSpecifications {
 
     private SendSpecifications() {}
 
+    /** Backed by the trigram indexes on {@code lower(owner_email)} and {@code lower(owner_name)} (V12). */
     public static Specification<Send> ownerContains(String search) {
         return (root, query, cb) -> {
-            String pattern = "%" + search.toLowerCase() + "%";
+            String pattern = "%" + escapeLike(search.toLowerCase()) + "%";
             return cb.or(
-                    cb.like(cb.lower(root.get("ownerEmail")), pattern),
-                    cb.like(cb.lower(root.get("ownerName")), pattern)
+                    cb.like(cb.lower(root.get("ownerEmail")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("ownerName")), pattern, '\\')
             );
         };
     }
 
+    /**
+     * Rows strictly after {@code cursor} in {@code (createdAt, id)} descending order, for keyset
+     * pagination. The redundant {@code createdAt <= cursor} term is what lets the database start
+     * the {@code (created_at, id)} index scan at the cursor instead of filtering from the top.
+     */
+    public static Specification<Send> after(SendCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                cb.or(
+                        cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                        cb.lessThan(root.<UUID>get("id"), cursor.id())
+                )
+        );
+    }
+
+    /**
+     * Each status has a matching partial index (V12), as long as the predicates below keep the
+     * same shape as the index conditions.
+     */
     public static Specification<Send> withStatus(String status, LocalDateTime now) {
-        return (root, query, cb) -> {
-            Predicate notRevoked = cb.equal(root.get("revoked"), false);
-            Predicate expiresAtNull = cb.isNull(root.get("expiresAt"));
-            Predicate notExpired = cb.or(expiresAtNull, cb.greaterThan(root.get("expiresAt"), now));
-            Predicate isExpired = cb.and(cb.isNotNull(root.get("expiresAt")), cb.lessThan(root.get("expiresAt"), now));
-            Predicate exhausted = cb.greaterThanOrEqualTo(root.get("downloadCount"), root.get("maxDownloads"));
-            Predicate notExhausted = cb.lessThan(root.get("downloadCount"), root.get("maxDownloads"));
-
-            return switch (status) {
-                case "active"    -> cb.and(notRevoked, notExpired, notExhausted);
-                case "expired"   -> cb.and(notRevoked, isExpired);
-                case "revoked"   -> cb.equal(root.get("revoked"), true);
-                case "exhausted" -> cb.and(notRevoked, notExpired, exhausted);
-                default          -> cb.conjunction();
-            };
+        return (root, query, cb) -> status(status, root, cb, now);
+    }
+
+    /** The predicate of {@link #withStatus}, also used by the grouped counts of {@code countByStatus}. */
+    static Predicate status(String status, Root<Send> root, CriteriaBuilder cb, LocalDateTime now) {
+        Predicate notRevoked = cb.equal(root.get("revoked"), false);
+        Predicate expiresAtNull = cb.isNull(root.get("expiresAt"));
+        Predicate notExpired = cb.or(expiresAtNull, cb.greaterThan(root.get("expiresAt"), now));
+        Predicate isExpired = cb.and(cb.isNotNull(root.get("expiresAt")), cb.lessThan(root.get("expiresAt"), now));
+        Predicate exhausted = cb.greaterThanOrEqualTo(root.get("downloadCount"), root.get("maxDownloads"));
+        Predicate notExhausted = cb.lessThan(root.get("downloadCount"), root.get("maxDownloads"));
+
+        return switch (status) {
+            case "active"    -> cb.and(notRevoked, notExpired, notExhausted);
+            case "expired"   -> cb.and(notRevoked, isExpired);
+            case "revoked"   -> cb.equal(root.get("revoked"), true);
+            case "exhausted" -> cb.and(notRevoked, notExpired, exhausted);
+            default          -> cb.conjunction();
         };
     }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
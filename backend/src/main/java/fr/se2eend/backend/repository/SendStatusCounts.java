@@ -0,0 +1,13 @@
+package fr.se2eend.backend.repository;
+
+/**
+ * Number of sends in each status of {@link SendSpecifications#withStatus}. Expired, exhausted and
+ * revoked do not overlap; {@code active} is what remains.
+ */
+public record SendStatusCounts(
+        long total,
+        long active,
+        long expired,
+        long exhausted,
+        long revoked
+) {}
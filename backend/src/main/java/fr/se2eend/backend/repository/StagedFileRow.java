@@ -0,0 +1,10 @@
+package fr.se2eend.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * A file still in the staging tier, with the access ID of its send so that the cached send can be
+ * evicted once the file is promoted.
+ */
+public record StagedFileRow(UUID id, String storagePath, String accessId) {
+}
@@ -0,0 +1,22 @@
+package fr.se2eend.backend.repository;
+
+import fr.se2eend.backend.model.UsageHour;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface UsageHourRepository extends JpaRepository<UsageHour, LocalDateTime> {
+
+    /** The row to add a flush to; locked so that instances flushing the same hour take turns. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UsageHour> findWithLockByHourStart(LocalDateTime hourStart);
+
+    /** Hours in {@code [from, to)}. */
+    Page<UsageHour> findByHourStartGreaterThanEqualAndHourStartLessThan(LocalDateTime from, LocalDateTime to,
+                                                                       Pageable pageable);
+}
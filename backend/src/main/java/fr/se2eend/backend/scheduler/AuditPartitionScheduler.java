@@ -0,0 +1,34 @@
+package fr.se2eend.backend.scheduler;
+
+import fr.se2eend.backend.service.DeletedSendPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Runs the audit log partition maintenance once a day, and at startup so that a deployment that
+ * was down for months gets its current partitions before the first deletion is audited.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionScheduler {
+
+    private final DeletedSendPartitionService partitionService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partition-maintenance-cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            Map<String, Object> result = partitionService.maintain();
+            log.info("Audit log partition maintenance: {}", result);
+        } catch (Exception e) {
+            log.error("Audit log partition maintenance failed", e);
+        }
+    }
+}
@@ -3,15 +3,29 @@ package fr.se2eend.backend.scheduler;
 import fr.se2eend.backend.service.AdminService;
 import fr.se2eend.backend.service.ChunkedUploadService;
 import fr.se2eend.backend.service.InstanceSettingsService;
+import fr.se2eend.backend.service.JobLeaseService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Runs the cleanup when the {@code cleanup_cron} setting fires. Every instance checks the schedule,
+ * but each job runs under a {@link JobLeaseService} lease: the send cleanup is split into
+ * {@code cleanup.shards} shards that the instances share, the stale upload session cleanup runs on
+ * one of them. Leases are kept until the next minute, so an instance arriving late to the same run
+ * skips the work already done.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -20,6 +34,20 @@ public class CleanupScheduler {
     private final AdminService adminService;
     private final ChunkedUploadService chunkedUploadService;
     private final InstanceSettingsService instanceSettingsService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${cleanup.shards:8}")
+    private int shards;
+
+    @Value("${jobs.lease-ttl:10m}")
+    private Duration leaseTtl;
+
+    @PostConstruct
+    void validate() {
+        if (shards < 1) {
+            throw new IllegalStateException("cleanup.shards must be at least 1, got " + shards);
+        }
+    }
 
     /**
      * Runs every minute and checks whether the cron expression stored in DB matches now.
@@ -51,15 +79,21 @@ public class CleanupScheduler {
         }
 
         log.info("Running scheduled cleanup (cron={})", cronExpr);
-        try {
-            Map<String, Object> result = adminService.runCleanup();
-            log.info("Scheduled cleanup completed: {}", result);
-        } catch (Exception e) {
-            log.error("Scheduled cleanup failed", e);
-        }
+        LocalDateTime keepUntil = now.plusMinutes(1);
+        // Candidates are listed once, by the first shard this instance gets.
+        AtomicReference<Map<Integer, List<UUID>>> candidates = new AtomicReference<>();
+        List<Integer> ran = jobLeaseService.runSharded("cleanup", shards, leaseTtl, keepUntil, shard -> {
+            List<UUID> ids = candidates.updateAndGet(listed -> listed != null ? listed
+                    : adminService.findCleanupCandidates(shards)).getOrDefault(shard, List.of());
+            String lease = JobLeaseService.shardLease("cleanup", shard);
+            log.info("Scheduled cleanup of shard {}/{} completed: {}", shard, shards,
+                    adminService.runCleanup(shard, ids, () -> jobLeaseService.renew(lease, leaseTtl)));
+        });
+        log.info("Scheduled cleanup ran {} of {} shard(s) on this instance", ran.size(), shards);
 
         try {
-            chunkedUploadService.cleanupStaleSessions(LocalDateTime.now().minusHours(24));
+            jobLeaseService.runExclusive("stale-upload-sessions", leaseTtl, keepUntil,
+                    () -> chunkedUploadService.cleanupStaleSessions(LocalDateTime.now().minusHours(24)));
         } catch (Exception e) {
             log.error("Stale upload session cleanup failed", e);
         }
@@ -0,0 +1,39 @@
+package fr.se2eend.backend.scheduler;
+
+import fr.se2eend.backend.storage.PackFileStorage;
+import fr.se2eend.backend.storage.StorageLayers;
+import fr.se2eend.backend.storage.StorageProperties;
+import fr.se2eend.backend.storage.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Compacts the pack files of the {@code pack} storage provider once a day. The packs are local to
+ * each instance, so every instance compacts its own. Does nothing with the other providers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PackCompactionScheduler {
+
+    private final StorageService storageService;
+    private final StorageProperties storageProperties;
+
+    @Scheduled(cron = "${storage.pack.compaction-cron:0 0 4 * * *}")
+    public void compact() {
+        PackFileStorage packs = StorageLayers.find(storageService, PackFileStorage.class).orElse(null);
+        if (packs == null) {
+            return;
+        }
+        try {
+            Map<String, Object> result = packs.compact(storageProperties.getPack().getCompactionGarbageRatio());
+            log.info("Pack compaction: {}", result);
+        } catch (Exception e) {
+            log.error("Pack compaction failed", e);
+        }
+    }
+}
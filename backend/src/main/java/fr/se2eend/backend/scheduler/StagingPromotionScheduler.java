@@ -0,0 +1,73 @@
+package fr.se2eend.backend.scheduler;
+
+import fr.se2eend.backend.service.JobLeaseService;
+import fr.se2eend.backend.service.StagingPromotionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Drives {@link StagingPromotionService} when the staging tier is enabled. The staging directory is
+ * shared, so each job runs on one instance at a time under a {@link JobLeaseService} lease; only the
+ * recount of staged bytes, which each instance keeps for itself, runs everywhere.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StagingPromotionScheduler {
+
+    private final StagingPromotionService stagingPromotionService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${jobs.lease-ttl:10m}")
+    private Duration leaseTtl;
+
+    @Scheduled(fixedDelayString = "${storage.staging.promotion-interval:PT2S}")
+    public void promote() {
+        if (!stagingPromotionService.isEnabled()) {
+            return;
+        }
+        try {
+            jobLeaseService.runExclusive("staging-promotion", leaseTtl, null, () -> {
+                int promoted = stagingPromotionService.promotePending();
+                if (promoted > 0) {
+                    log.info("Promoted {} staged file(s) to the storage provider", promoted);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Staging promotion failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.staging.sweep-interval:PT1M}")
+    public void sweep() {
+        if (!stagingPromotionService.isEnabled()) {
+            return;
+        }
+        try {
+            jobLeaseService.runExclusive("staging-sweep", leaseTtl, null, () -> {
+                try {
+                    int deleted = stagingPromotionService.sweep();
+                    if (deleted > 0) {
+                        log.info("Removed {} promoted file(s) from staging", deleted);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Staging sweep failed", e);
+        }
+        try {
+            stagingPromotionService.recount();
+        } catch (IOException e) {
+            log.warn("Could not recount staged bytes: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.cluster.ClusterEvent;
+import fr.se2eend.backend.cluster.ClusterNotifier;
+import fr.se2eend.backend.config.ReadReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter of every live access ID, consulted before public lookups hit the database: an ID
+ * it has never seen (a scanner's random guess, a deleted send) is rejected without a query.
+ * <p>
+ * Built at startup by streaming {@code sends.access_id}, then kept current by {@link #register} on
+ * every insert (locally and, through {@link ClusterNotifier}, on the other instances). A notification
+ * arrives late, or never (lost connection, no PostgreSQL), so a miss is not trusted blindly: at most
+ * once per {@code recheck-interval}, it first loads the IDs created since the last build or recheck,
+ * going {@link #CATCH_UP_OVERLAP} further back for commit delays and clock skew. A Bloom filter
+ * cannot forget, so deleted IDs are dropped by the periodic rebuild. Until the first build completes
+ * every ID passes.
+ */
+@Service
+@Slf4j
+public class AccessIdFilter {
+
+    public static final String CLUSTER_TOPIC = "access-ids";
+    static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ClusterNotifier clusterNotifier;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long recheckNanos;
+
+    private volatile Bloom current;
+    /** Filter being rebuilt; receives additions made while the table is streamed. */
+    private volatile Bloom building;
+    private volatile LocalDateTime lastRebuild;
+    /** Sends created after this (less the overlap) may be missing from the filter. */
+    private volatile LocalDateTime caughtUpTo;
+    private volatile long lastCatchUpNanos;
+    private final ReentrantLock catchUp = new ReentrantLock();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder catchUps = new LongAdder();
+
+    public AccessIdFilter(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          ClusterNotifier clusterNotifier,
+                          @Value("${access-id-filter.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${access-id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${access-id-filter.recheck-interval:PT1S}") Duration recheckInterval) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.clusterNotifier = clusterNotifier;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.recheckNanos = recheckInterval.toNanos();
+        this.lastCatchUpNanos = System.nanoTime() - recheckNanos;
+    }
+
+    /** {@code false} only if the access ID certainly does not exist. */
+    public boolean mightContain(String accessId) {
+        Bloom filter = current;
+        if (filter == null || filter.mightContain(accessId)
+                || (catchUp(System.nanoTime()) && current.mightContain(accessId))) {
+            passed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Add a newly inserted send's access ID here and on the other instances. Inside a transaction,
+     * the notification goes out on commit.
+     */
+    public void register(String accessId) {
+        add(accessId);
+        clusterNotifier.publish(CLUSTER_TOPIC, accessId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Again after commit, in case a rebuild started streaming before this row was visible.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(accessId);
+                }
+            });
+        }
+    }
+
+    public void add(String accessId) {
+        Bloom filter = current;
+        if (filter != null) {
+            filter.add(accessId);
+        }
+        Bloom next = building;
+        if (next != null) {
+            next.add(accessId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${access-id-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${access-id-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        try {
+            Long live = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sends", Long.class);
+            long capacity = Math.max(expectedInsertions, (live == null ? 0 : live) * 3 / 2);
+            Bloom next = new Bloom(capacity, falsePositiveRate);
+            building = next;
+            LocalDateTime snapshot = LocalDateTime.now();
+            // In a transaction so PostgreSQL streams with a cursor instead of loading everything;
+            // read-only, but from the primary since the filter outlives the request.
+            ReadReplicaRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> {
+                jdbcTemplate.query("SELECT access_id FROM sends", rs -> {
+                    next.add(rs.getString(1));
+                });
+                return null;
+            }));
+            caughtUpTo = snapshot;
+            current = next;
+            lastRebuild = LocalDateTime.now();
+            log.info("Access ID filter rebuilt: {} IDs, {} KiB, in {} ms", next.insertions.sum(),
+                    next.sizeBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Access ID filter rebuild failed, keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Load the IDs created since {@link #caughtUpTo}, unless another miss did so after
+     * {@code missedAt} or less than {@code recheck-interval} ago.
+     *
+     * @return whether the filter is at least as fresh as {@code missedAt}
+     */
+    private boolean catchUp(long missedAt) {
+        catchUp.lock();
+        try {
+            if (lastCatchUpNanos - missedAt >= 0) {
+                return true;
+            }
+            if (System.nanoTime() - lastCatchUpNanos < recheckNanos) {
+                return false;
+            }
+            LocalDateTime since = caughtUpTo;
+            LocalDateTime snapshot = LocalDateTime.now();
+            long started = System.nanoTime();
+            try {
+                ReadReplicaRoutingDataSource.onPrimary(() -> {
+                    jdbcTemplate.query("SELECT access_id FROM sends WHERE created_at > ?",
+                            rs -> {
+                                add(rs.getString(1));
+                            },
+                            Timestamp.valueOf(since.minus(CATCH_UP_OVERLAP)));
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Access ID filter recheck failed: {}", e.getMessage());
+                return false;
+            } finally {
+                lastCatchUpNanos = started;
+            }
+            caughtUpTo = snapshot;
+            catchUps.increment();
+            return true;
+        } finally {
+            catchUp.unlock();
+        }
+    }
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+        if (ClusterEvent.RESYNC.equals(event.topic())) {
+            rebuild();
+        } else if (CLUSTER_TOPIC.equals(event.topic())) {
+            add(event.payload());
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Bloom filter = current;
+        metrics.put("built", filter != null);
+        metrics.put("lastRebuild", lastRebuild);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("passed", passed.sum());
+        metrics.put("rechecks", catchUps.sum());
+        if (filter != null) {
+            metrics.put("elements", filter.insertions.sum());
+            metrics.put("capacity", filter.capacity);
+            metrics.put("memoryBytes", filter.sizeBytes());
+            metrics.put("hashFunctions", filter.hashFunctions);
+            metrics.put("configuredFalsePositiveRate", falsePositiveRate);
+            metrics.put("estimatedFalsePositiveRate", filter.estimatedFalsePositiveRate());
+        }
+        return metrics;
+    }
+
+    /**
+     * Lock-free Bloom filter over an {@link AtomicLongArray}, with double hashing
+     * (Kirsch–Mitzenmacher) on two 64-bit hashes of the ID.
+     */
+    private static final class Bloom {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashFunctions;
+        private final long capacity;
+        private final LongAdder insertions = new LongAdder();
+
+        Bloom(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bits = (long) words.length() * 64;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        }
+
+        /** Counted as an insertion only if it set a bit, so that adding an ID again is free. */
+        void add(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                long previous;
+                do {
+                    previous = words.get(word);
+                } while ((previous & mask) == 0 && !words.compareAndSet(word, previous, previous | mask));
+                changed |= (previous & mask) == 0;
+            }
+            if (changed) {
+                insertions.increment();
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeBytes() {
+            return bits / 8;
+        }
+
+        double estimatedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions.sum() / bits), hashFunctions);
+        }
+
+        /** FNV-1a over the UTF-16 code units, finalized so that every bit depends on the input. */
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        /** MurmurHash3 fmix64. */
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.dto.DeletedSendDto;
+import fr.se2eend.backend.dto.FileMetadataDto;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.SendListRow;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.mapper.SendMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Full dumps of the send table and of the audit log, written row by row as they come off a
+ * database cursor: memory use does not depend on the number of rows, and there is no offset
+ * paging or count.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String[] SEND_COLUMNS = {
+            "id", "accessId", "ownerId", "ownerName", "ownerEmail", "name", "type", "expiresAt",
+            "maxDownloads", "downloadCount", "passwordProtected", "revoked", "createdAt",
+            "fileId", "filename", "sizeBytes", "chunkSize"
+    };
+
+    private static final String[] AUDIT_COLUMNS = {
+            "id", "originalSendId", "accessId", "ownerId", "ownerName", "ownerEmail",
+            "sendCreatedAt", "deletedAt", "deleteReason", "totalSizeBytes"
+    };
+
+    private final SendRepository sendRepository;
+    private final DeletedSendRepository deletedSendRepository;
+    private final SendMapper sendMapper;
+    private final JsonMapper jsonMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        /** @throws IllegalArgumentException for anything but {@code ndjson} or {@code csv} */
+        public static Format parse(String value) {
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "ndjson" -> NDJSON;
+                case "csv" -> CSV;
+                default -> throw new IllegalArgumentException("format must be ndjson or csv");
+            };
+        }
+    }
+
+    /** Same filters as the admin send listing. */
+    @Transactional(readOnly = true)
+    public void exportSends(String ownerSearch, String status, Format format, OutputStream out) throws IOException {
+        try (Stream<SendListRow> rows = sendRepository.streamListing(AdminService.filters(ownerSearch, status), FETCH_SIZE)) {
+            write(rows.map(sendMapper::toDto).iterator(), format, SEND_COLUMNS, AdminExportService::sendValues, out);
+        }
+    }
+
+    /** Same filters as the audit log listing. */
+    @Transactional(readOnly = true)
+    public void exportDeletedSends(UUID ownerId, DeleteReason reason, LocalDateTime from, LocalDateTime to,
+                                   Format format, OutputStream out) throws IOException {
+        try (Stream<DeletedSendDto> rows = deletedSendRepository.streamAudit(
+                AdminService.auditFilters(ownerId, reason, from, to), FETCH_SIZE)) {
+            write(rows.iterator(), format, AUDIT_COLUMNS, AdminExportService::auditValues, out);
+        }
+    }
+
+    private <T> void write(Iterator<T> rows, Format format, String[] columns,
+                           Function<T, Object[]> values, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writeCsvLine(writer, columns);
+        }
+        while (rows.hasNext()) {
+            T row = rows.next();
+            if (format == Format.CSV) {
+                writeCsvLine(writer, values.apply(row));
+            } else {
+                writer.write(jsonMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static Object[] sendValues(SendResponseDto send) {
+        FileMetadataDto file = send.file();
+        return new Object[]{
+                send.id(), send.accessId(), send.ownerId(), send.ownerName(), send.ownerEmail(), send.name(),
+                send.type(), send.expiresAt(), send.maxDownloads(), send.downloadCount(),
+                send.passwordProtected(), send.revoked(), send.createdAt(),
+                file != null ? file.id() : null, file != null ? file.filename() : null,
+                file != null ? file.sizeBytes() : null, file != null ? file.chunkSize() : null
+        };
+    }
+
+    private static Object[] auditValues(DeletedSendDto audit) {
+        return new Object[]{
+                audit.id(), audit.originalSendId(), audit.accessId(), audit.ownerId(), audit.ownerName(),
+                audit.ownerEmail(), audit.sendCreatedAt(), audit.deletedAt(), audit.deleteReason(),
+                audit.totalSizeBytes()
+        };
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof String text) {
+                writer.write(csvField(text));
+            } else if (values[i] != null) {
+                writer.write(values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 quoting. Text that a spreadsheet would evaluate as a formula (owner names come from
+     * user profiles) is prefixed with a quote.
+     */
+    private static String csvField(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
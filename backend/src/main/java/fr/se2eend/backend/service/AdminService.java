@@ -1,22 +1,32 @@
 package fr.se2eend.backend.service;
 
+import fr.se2eend.backend.dto.CursorPage;
 import fr.se2eend.backend.dto.DeletedSendDto;
 import fr.se2eend.backend.dto.PagedResponse;
+import fr.se2eend.backend.dto.SendCursor;
 import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.dto.UsageHourDto;
 import fr.se2eend.backend.exception.ResourceNotFoundException;
 import fr.se2eend.backend.model.DeletedSend;
 import fr.se2eend.backend.model.FileMetadata;
 import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.UsageHour;
 import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.monitoring.CleanupEvent;
 import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.DeletedSendSpecifications;
 import fr.se2eend.backend.repository.FileRepository;
 import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.repository.SendStatusCounts;
+import fr.se2eend.backend.repository.UsageHourRepository;
 import fr.se2eend.backend.service.mapper.SendMapper;
 import fr.se2eend.backend.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import fr.se2eend.backend.repository.SendSpecifications;
 import org.springframework.data.domain.Page;
@@ -24,11 +34,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -38,25 +52,40 @@ public class AdminService {
     private final SendRepository sendRepository;
     private final FileRepository fileRepository;
     private final DeletedSendRepository deletedSendRepository;
+    private final UsageHourRepository usageHourRepository;
     private final SendMapper sendMapper;
     private final StorageService storageService;
+    private final SendMetadataCache sendMetadataCache;
+    private final UsageAggregator usageAggregator;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Upper bound of an approximate count; beyond it, the total is reported as "at least". */
+    static final int APPROXIMATE_COUNT_LIMIT = 10_000;
+
+    /** Candidates loaded and deleted per cleanup transaction. */
+    static final int CLEANUP_BATCH_SIZE = 500;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    /** How long {@link #getStats()} serves the same figures; admin changes made here reset it. */
+    @Value("${admin.stats-ttl:10s}")
+    private Duration statsTtl;
+
+    private volatile StatsSnapshot statsSnapshot;
+
+    private record StatsSnapshot(Map<String, Object> stats, long takenAtNanos) {}
 
     /**
-     * Get paginated sends with optional filters
+     * Get paginated sends with optional filters.
+     * Offset-based, with an exact count: kept for the admin dashboard's numbered pages.
      */
+    @Transactional(readOnly = true)
     public PagedResponse<SendResponseDto> getAllSends(int page, int size, String ownerSearch, String status) {
-        Specification<Send> spec = Specification.unrestricted();
-
-        if (ownerSearch != null && !ownerSearch.isBlank()) {
-            spec = spec.and(SendSpecifications.ownerContains(ownerSearch));
-        }
-        if (status != null && !status.equals("all")) {
-            spec = spec.and(SendSpecifications.withStatus(status, LocalDateTime.now()));
-        }
-
-        Page<Send> pageResult = sendRepository.findAll(
-                spec,
-                PageRequest.of(page, size, Sort.by("createdAt").descending())
+        Page<Send> pageResult = sendRepository.findBy(
+                filters(ownerSearch, status),
+                query -> query.sortBy(NEWEST_FIRST).project("file").page(PageRequest.of(page, size))
         );
 
         return new PagedResponse<>(
@@ -69,30 +98,102 @@ public class AdminService {
     }
 
     /**
-     * Get application statistics
+     * Get a page of sends after {@code cursor} (keyset pagination on {@code (createdAt, id)}),
+     * so that deep pages cost the same as the first one.
+     *
+     * @param count {@code exact}, {@code approximate} (exact up to {@value #APPROXIMATE_COUNT_LIMIT},
+     *              a lower bound beyond) or {@code none}
      */
-    public Map<String, Object> getStats() {
-        Map<String, Object> stats = new HashMap<>();
+    @Transactional(readOnly = true)
+    public CursorPage<SendResponseDto> getSendsAfter(String cursor, int size, String ownerSearch,
+                                                     String status, String count) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        SendCursor after = SendCursor.decode(cursor);
+        Specification<Send> filters = filters(ownerSearch, status);
+        Specification<Send> spec = after == null ? filters : filters.and(SendSpecifications.after(after));
+
+        // One extra row tells whether there is a next page.
+        List<Send> rows = sendRepository.findBy(spec,
+                query -> query.sortBy(NEWEST_FIRST).project("file").limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Send> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Send last = content.get(content.size() - 1);
+            nextCursor = new SendCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-        long totalSends = sendRepository.count();
-        long activeSends = sendRepository.findAll().stream()
-                .filter(send -> !send.isRevoked() && send.getDownloadCount() < send.getMaxDownloads())
-                .count();
-        long totalFiles = fileRepository.count();
+        Long total;
+        boolean exact;
+        switch (count) {
+            case "exact" -> {
+                total = sendRepository.count(filters);
+                exact = true;
+            }
+            case "approximate" -> {
+                total = sendRepository.countUpTo(filters, APPROXIMATE_COUNT_LIMIT + 1);
+                exact = total <= APPROXIMATE_COUNT_LIMIT;
+                total = Math.min(total, APPROXIMATE_COUNT_LIMIT);
+            }
+            case "none" -> {
+                total = null;
+                exact = false;
+            }
+            default -> throw new IllegalArgumentException("count must be exact, approximate or none");
+        }
 
-        stats.put("totalSends", totalSends);
-        stats.put("activeSends", activeSends);
-        stats.put("revokedSends", sendRepository.findAll().stream().filter(Send::isRevoked).count());
-        stats.put("totalFiles", totalFiles);
+        return new CursorPage<>(content.stream().map(sendMapper::toDto).toList(), nextCursor, total, exact);
+    }
+
+    /** Filters of the send listings and export. */
+    static Specification<Send> filters(String ownerSearch, String status) {
+        Specification<Send> spec = Specification.unrestricted();
 
-        return stats;
+        if (ownerSearch != null && !ownerSearch.isBlank()) {
+            spec = spec.and(SendSpecifications.ownerContains(ownerSearch));
+        }
+        if (status != null && !status.equals("all")) {
+            spec = spec.and(SendSpecifications.withStatus(status, LocalDateTime.now()));
+        }
+        return spec;
+    }
+
+    /**
+     * Get application statistics: one aggregate query over sends (statuses as in the listing
+     * filters) and a count of files, memoized for {@code admin.stats-ttl}.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        StatsSnapshot snapshot = statsSnapshot;
+        if (snapshot != null && System.nanoTime() - snapshot.takenAtNanos() < statsTtl.toNanos()) {
+            return snapshot.stats();
+        }
+
+        SendStatusCounts counts = sendRepository.countByStatus(LocalDateTime.now());
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalSends", counts.total());
+        stats.put("activeSends", counts.active());
+        stats.put("expiredSends", counts.expired());
+        stats.put("exhaustedSends", counts.exhausted());
+        stats.put("revokedSends", counts.revoked());
+        stats.put("totalFiles", fileRepository.count());
+
+        snapshot = new StatsSnapshot(Map.copyOf(stats), System.nanoTime());
+        statsSnapshot = snapshot;
+        return snapshot.stats();
     }
 
     /**
-     * Get paginated deleted sends audit log
+     * Get paginated deleted sends audit log, optionally filtered. {@code from} (inclusive) and
+     * {@code to} (exclusive) bound {@code deletedAt}, which restricts the scan to those months.
      */
-    public PagedResponse<DeletedSendDto> getDeletedSends(int page, int size) {
+    @Transactional(readOnly = true)
+    public PagedResponse<DeletedSendDto> getDeletedSends(int page, int size, UUID ownerId, DeleteReason reason,
+                                                         LocalDateTime from, LocalDateTime to) {
         Page<DeletedSend> pageResult = deletedSendRepository.findAll(
+                auditFilters(ownerId, reason, from, to),
                 PageRequest.of(page, size, Sort.by("deletedAt").descending())
         );
 
@@ -116,6 +217,58 @@ public class AdminService {
         );
     }
 
+    /**
+     * Get hourly usage in {@code [from, to)}, newest first. Reads only the rollup rows; the last
+     * minute or so is still in the instances' counters.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<UsageHourDto> getUsage(LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Page<UsageHour> pageResult = usageHourRepository.findByHourStartGreaterThanEqualAndHourStartLessThan(
+                from, to, PageRequest.of(page, size, Sort.by("hourStart").descending())
+        );
+
+        return new PagedResponse<>(
+                pageResult.getContent().stream().map(AdminService::toUsageDto).toList(),
+                pageResult.getTotalElements(),
+                pageResult.getTotalPages(),
+                pageResult.getNumber(),
+                pageResult.getSize()
+        );
+    }
+
+    /** Filters of the audit log listing and export. */
+    static Specification<DeletedSend> auditFilters(UUID ownerId, DeleteReason reason,
+                                                   LocalDateTime from, LocalDateTime to) {
+        Specification<DeletedSend> spec = Specification.unrestricted();
+        if (ownerId != null) {
+            spec = spec.and(DeletedSendSpecifications.ownedBy(ownerId));
+        }
+        if (reason != null) {
+            spec = spec.and(DeletedSendSpecifications.withReason(reason));
+        }
+        if (from != null) {
+            spec = spec.and(DeletedSendSpecifications.deletedFrom(from));
+        }
+        if (to != null) {
+            spec = spec.and(DeletedSendSpecifications.deletedBefore(to));
+        }
+        return spec;
+    }
+
+    private static UsageHourDto toUsageDto(UsageHour hour) {
+        Map<DeleteReason, Long> deleted = new EnumMap<>(DeleteReason.class);
+        deleted.put(DeleteReason.EXPIRED, hour.getDeletedExpired());
+        deleted.put(DeleteReason.REVOKED, hour.getDeletedRevoked());
+        deleted.put(DeleteReason.EXHAUSTED, hour.getDeletedExhausted());
+        deleted.put(DeleteReason.MANUAL, hour.getDeletedManual());
+        deleted.put(DeleteReason.USER, hour.getDeletedUser());
+        return new UsageHourDto(hour.getHourStart(), hour.getSendsCreated(), hour.getUploadsCompleted(),
+                hour.getBytesIn(), hour.getDownloads(), hour.getBytesOut(), deleted);
+    }
+
     /**
      * Delete a send
      */
@@ -137,20 +290,94 @@ public class AdminService {
 
         send.setRevoked(true);
         sendRepository.save(send);
+        sendMetadataCache.evict(send.getAccessId());
+        statsSnapshot = null;
     }
 
-    @Transactional
     public Map<String, Object> runCleanup() {
-        log.info("Starting cleanup of expired/revoked/exhausted sends");
+        return runCleanup(0, sendRepository.findCleanupCandidateIds(LocalDateTime.now()), () -> true);
+    }
 
-        List<Send> allSends = sendRepository.findAll();
-        LocalDateTime now = LocalDateTime.now();
+    /**
+     * Ids of the sends the cleanup may delete, split into {@code shards} disjoint shards by id hash,
+     * so that one scan serves every shard a run takes. Candidates are checked again when deleted.
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, List<UUID>> findCleanupCandidates(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+        return sendRepository.findCleanupCandidateIds(LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(id -> Math.floorMod(id.hashCode(), shards)));
+    }
 
+    /**
+     * Cleanup of one shard, given its candidates from {@link #findCleanupCandidates}. Shards are
+     * disjoint, so instances can clean them up in parallel. Candidates are deleted
+     * {@value #CLEANUP_BATCH_SIZE} at a time, one transaction per batch; before each batch after the
+     * first, {@code stillHeld} renews the caller's lease, and the rest is left for the next run if
+     * it was lost.
+     */
+    public Map<String, Object> runCleanup(int shard, List<UUID> candidateIds, BooleanSupplier stillHeld) {
+        CleanupEvent event = new CleanupEvent();
+        event.begin();
+        try {
+            Map<String, Object> result = cleanup(shard, candidateIds, stillHeld);
+            event.deletedSends = (int) result.get("deletedSends");
+            event.deletedFiles = (int) result.get("deletedFiles");
+            event.freedBytes = (long) result.get("freedSpace");
+            event.succeeded = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    private Map<String, Object> cleanup(int shard, List<UUID> ids, BooleanSupplier stillHeld) {
+        log.info("Starting cleanup of expired/revoked/exhausted sends (shard {}, {} candidate(s))", shard, ids.size());
+
+        LocalDateTime now = LocalDateTime.now();
         int deletedSends = 0;
         int deletedFiles = 0;
         long freedSpace = 0L;
 
-        for (Send send : allSends) {
+        for (int from = 0; from < ids.size(); from += CLEANUP_BATCH_SIZE) {
+            if (from > 0 && !stillHeld.getAsBoolean()) {
+                log.warn("Cleanup of shard {} stopped after {} of {} candidate(s): lease lost", shard, from, ids.size());
+                break;
+            }
+            List<UUID> batch = ids.subList(from, Math.min(from + CLEANUP_BATCH_SIZE, ids.size()));
+            long[] stats = transactionTemplate.execute(status -> cleanupBatch(batch, now));
+            deletedSends += (int) stats[0];
+            deletedFiles += (int) stats[1];
+            freedSpace += stats[2];
+        }
+
+        log.info("Cleanup completed: deleted {} sends, {} files, freed {} bytes",
+                deletedSends, deletedFiles, freedSpace);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("deletedSends", deletedSends);
+        result.put("deletedFiles", deletedFiles);
+        result.put("freedSpace", freedSpace);
+        result.put("timestamp", LocalDateTime.now());
+
+        return result;
+    }
+
+    /**
+     * Delete the sends of {@code ids} that are still due for cleanup.
+     * Returns [deletedSendCount, deletedFileCount, freedBytes].
+     */
+    private long[] cleanupBatch(List<UUID> ids, LocalDateTime now) {
+        long deletedSends = 0;
+        long deletedFiles = 0;
+        long freedSpace = 0L;
+
+        for (Send send : sendRepository.findAllById(ids)) {
             DeleteReason reason = null;
 
             if (send.getExpiresAt() != null && send.getExpiresAt().isBefore(now)) {
@@ -164,22 +391,13 @@ public class AdminService {
             if (reason != null) {
                 log.info("Deleting send {} (reason: {})", send.getAccessId(), reason);
                 long[] stats = auditAndDelete(send, reason);
-                deletedFiles += (int) stats[0];
+                deletedFiles += stats[0];
                 freedSpace += stats[1];
                 deletedSends++;
             }
         }
 
-        log.info("Cleanup completed: deleted {} sends, {} files, freed {} bytes",
-                deletedSends, deletedFiles, freedSpace);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("deletedSends", deletedSends);
-        result.put("deletedFiles", deletedFiles);
-        result.put("freedSpace", freedSpace);
-        result.put("timestamp", LocalDateTime.now());
-
-        return result;
+        return new long[]{deletedSends, deletedFiles, freedSpace};
     }
 
     /**
@@ -193,7 +411,10 @@ public class AdminService {
         FileMetadata file = send.getFile();
         if (file != null) {
             try {
-                storageService.delete(file.getStoragePath());
+                // Inline payloads go away with the row.
+                if (!file.isInline()) {
+                    storageService.delete(file.getStoragePath());
+                }
                 deletedFiles++;
                 freedSpace += file.getSizeBytes();
             } catch (Exception e) {
@@ -215,6 +436,9 @@ public class AdminService {
 
         deletedSendRepository.save(audit);
         sendRepository.delete(send);
+        sendMetadataCache.evict(send.getAccessId());
+        statsSnapshot = null;
+        usageAggregator.deleted(reason);
 
         return new long[]{deletedFiles, freedSpace};
     }
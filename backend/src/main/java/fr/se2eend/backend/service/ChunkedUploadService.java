@@ -5,6 +5,8 @@ import fr.se2eend.backend.exception.ResourceNotFoundException;
 import fr.se2eend.backend.exception.UploadSizeLimitExceededException;
 import fr.se2eend.backend.exception.enums.ErrorCode;
 import fr.se2eend.backend.model.*;
+import fr.se2eend.backend.monitoring.ChunkUploadEvent;
+import fr.se2eend.backend.monitoring.UploadCompleteEvent;
 import fr.se2eend.backend.repository.*;
 import fr.se2eend.backend.storage.StorageService;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -29,6 +30,7 @@ public class ChunkedUploadService {
     private final SendRepository sendRepository;
     private final StorageService storageService;
     private final InstanceSettingsService instanceSettingsService;
+    private final UsageAggregator usageAggregator;
 
     /** Default upload size limit (plaintext) when the instance setting is unset. */
     private static final long DEFAULT_MAX_UPLOAD_BYTES = 2L * 1024 * 1024 * 1024; // 2 GiB
@@ -54,6 +56,23 @@ public class ChunkedUploadService {
 
     @Transactional
     public void saveChunk(UUID sessionId, int chunkIndex, InputStream data, long sizeBytes) throws IOException {
+        ChunkUploadEvent event = new ChunkUploadEvent();
+        event.begin();
+        try {
+            storeChunk(sessionId, chunkIndex, data, sizeBytes);
+            event.succeeded = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sessionId = sessionId.toString();
+                event.chunkIndex = chunkIndex;
+                event.bytes = sizeBytes;
+                event.commit();
+            }
+        }
+    }
+
+    private void storeChunk(UUID sessionId, int chunkIndex, InputStream data, long sizeBytes) throws IOException {
         UploadSession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.UPLOAD_SESSION_NOT_FOUND, "Upload session not found"));
 
@@ -74,8 +93,7 @@ public class ChunkedUploadService {
             }
         }
 
-        String storagePath = "chunks/" + sessionId + "/" + chunkIndex;
-        storageService.save(data, sizeBytes, storagePath);
+        String storagePath = storageService.save(data, sizeBytes, "chunks/" + sessionId + "/" + chunkIndex);
 
         UploadChunk chunk = UploadChunk.builder()
                 .session(session)
@@ -85,10 +103,30 @@ public class ChunkedUploadService {
                 .build();
 
         chunkRepository.save(chunk);
+        usageAggregator.bytesReceived(sizeBytes);
     }
 
     @Transactional
     public FileMetadata completeUpload(UUID sessionId, int totalChunks, int chunkSize) throws IOException {
+        UploadCompleteEvent event = new UploadCompleteEvent();
+        event.begin();
+        try {
+            FileMetadata meta = assembleUpload(sessionId, totalChunks, chunkSize);
+            usageAggregator.uploadCompleted();
+            event.bytes = meta.getSizeBytes();
+            event.succeeded = true;
+            return meta;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sessionId = sessionId.toString();
+                event.chunks = totalChunks;
+                event.commit();
+            }
+        }
+    }
+
+    private FileMetadata assembleUpload(UUID sessionId, int totalChunks, int chunkSize) throws IOException {
         UploadSession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.UPLOAD_SESSION_NOT_FOUND, "Upload session not found"));
 
@@ -114,17 +152,8 @@ public class ChunkedUploadService {
             }
         }
 
-        String finalPath = UUID.randomUUID().toString();
-
-        List<InputStream> streams = new ArrayList<>();
-        for (UploadChunk chunk : chunks) {
-            streams.add(storageService.read(chunk.getStoragePath()));
-        }
-
-        Enumeration<InputStream> enumeration = Collections.enumeration(streams);
-        try (InputStream combined = new SequenceInputStream(enumeration)) {
-            storageService.save(combined, totalSize, finalPath);
-        }
+        List<String> chunkPaths = chunks.stream().map(UploadChunk::getStoragePath).toList();
+        String finalPath = storageService.concatenate(chunkPaths, totalSize, UUID.randomUUID().toString());
 
         for (UploadChunk chunk : chunks) {
             storageService.delete(chunk.getStoragePath());
@@ -0,0 +1,167 @@
+package fr.se2eend.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the {@code deleted_sends} audit log (V15): creates the
+ * next months' partitions ahead of time, and drops whole months older than
+ * {@code audit_retention_months} instead of deleting rows.
+ * <p>
+ * PostgreSQL only; on other databases (tests) {@link #maintain()} does nothing. Instances sharing
+ * the database take a session advisory lock, so only one of them runs the DDL at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeletedSendPartitionService {
+
+    public static final String RETENTION_SETTING = "audit_retention_months";
+
+    private static final String PARENT = "deleted_sends";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT + "_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int MONTHS_AHEAD = 3;
+    /** Arbitrary, but fixed: identifies this job's advisory lock. */
+    private static final long LOCK_KEY = 0x5E2EE0D0AD17L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstanceSettingsService instanceSettingsService;
+
+    /**
+     * @return what was done, or {@code skipped} with the reason
+     */
+    public Map<String, Object> maintain() {
+        int retentionMonths = (int) instanceSettingsService.getLong(RETENTION_SETTING, 0);
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, Object>>) connection -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()) || !isPartitioned(connection)) {
+                result.put("skipped", "deleted_sends is not a partitioned PostgreSQL table");
+                return result;
+            }
+            if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+                result.put("skipped", "running on another instance");
+                return result;
+            }
+            try {
+                YearMonth current = YearMonth.now();
+                result.put("created", createAhead(connection, current));
+                if (retentionMonths > 0) {
+                    List<String> dropped = expiredPartitions(partitions(connection), current, retentionMonths);
+                    for (String partition : dropped) {
+                        execute(connection, "DROP TABLE " + partition);
+                    }
+                    result.put("dropped", dropped);
+                    result.put("purgedFromDefault", purgeDefault(connection, current.minusMonths(retentionMonths)));
+                }
+                return result;
+            } finally {
+                queryBoolean(connection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+            }
+        });
+    }
+
+    /**
+     * Monthly partitions entirely older than {@code retentionMonths} before {@code current}: with a
+     * retention of 12, a partition is dropped once the month that starts 12 months before the
+     * current one is past it. Names that are not monthly partitions are ignored.
+     */
+    public static List<String> expiredPartitions(Collection<String> partitions, YearMonth current, int retentionMonths) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches() && YearMonth.parse(matcher.group(1), SUFFIX).isBefore(oldestKept)) {
+                expired.add(partition);
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+
+    private List<String> createAhead(Connection connection, YearMonth current) throws SQLException {
+        List<String> existing = partitions(connection);
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = PARENT + "_p" + month.format(SUFFIX);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                execute(connection, "CREATE TABLE " + name + " PARTITION OF " + PARENT
+                        + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+                created.add(name);
+            } catch (SQLException e) {
+                // Typically rows for that month already landed in the default partition.
+                log.warn("Could not create audit log partition {}: {}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /** Rows older than the retention that fell into the default partition (normally none). */
+    private int purgeDefault(Connection connection, YearMonth oldestKept) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + PARENT + "_default WHERE deleted_at < ?")) {
+            statement.setTimestamp(1, Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay()));
+            return statement.executeUpdate();
+        }
+    }
+
+    private static boolean isPartitioned(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(?)")) {
+            statement.setString(1, PARENT);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static List<String> partitions(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?)")) {
+            statement.setString(1, PARENT);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
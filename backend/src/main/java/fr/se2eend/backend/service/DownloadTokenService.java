@@ -0,0 +1,83 @@
+package fr.se2eend.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Short-lived download tokens, handed out after a successful password check so that retries and
+ * resumed downloads of the same send skip BCrypt. A token is {@code <expiry>.<HMAC-SHA256 of
+ * accessId and expiry>}: it only opens the send it was issued for, and is checked in constant time.
+ * <p>
+ * Without {@code download-token.secret} the key is random per process, so tokens only work on the
+ * instance that issued them (a follow-up landing elsewhere falls back to the password).
+ */
+@Service
+@Slf4j
+public class DownloadTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public DownloadTokenService(@Value("${download-token.secret:}") String secret,
+                                @Value("${download-token.ttl:10m}") Duration ttl) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.info("No download-token.secret configured, download tokens are only valid on this instance");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    public String issue(String accessId) {
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        return expiresAt + "." + ENCODER.encodeToString(sign(accessId, expiresAt));
+    }
+
+    public boolean verify(String accessId, String token) {
+        if (token == null) {
+            return false;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        long expiresAt;
+        byte[] signature;
+        try {
+            expiresAt = Long.parseLong(token.substring(0, dot));
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return expiresAt >= Instant.now().getEpochSecond()
+                && MessageDigest.isEqual(signature, sign(accessId, expiresAt));
+    }
+
+    private byte[] sign(String accessId, long expiresAt) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((accessId + "\n" + expiresAt).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
@@ -9,19 +9,31 @@ import fr.se2eend.backend.repository.FileRepository;
 import fr.se2eend.backend.repository.SendRepository;
 import fr.se2eend.backend.storage.StorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.UUID;
 
+/**
+ * Attaches single-request uploads to sends. Payloads up to {@code storage.inline-threshold}
+ * (encrypted TEXT sends, tiny files) are stored in the {@code files} row itself, which saves the
+ * object storage PUT, the GET per download and the DELETE at cleanup.
+ */
 @Service
 @RequiredArgsConstructor
 public class FileService {
     private final FileRepository fileRepository;
     private final SendRepository sendRepository;
     private final StorageService storageService;
+    private final UsageAggregator usageAggregator;
+
+    @Value("${storage.inline-threshold:4KB}")
+    private DataSize inlineThreshold;
 
     public FileMetadata addFileToSend(UUID sendId, MultipartFile file) throws IOException {
         Send send = sendRepository.findById(sendId)
@@ -30,26 +42,32 @@ public class FileService {
         // Only the Send's owner may attach a file (treats "not yours" as "not found").
         SecurityUtils.requireOwner(send.getOwnerId());
 
-        String storedPath = storageService.save(
-                file.getInputStream(),
-                file.getSize(),
-                file.getOriginalFilename()
-        );
-
-        FileMetadata meta = FileMetadata.builder()
+        FileMetadata.FileMetadataBuilder meta = FileMetadata.builder()
                 .send(send)
                 .filename(file.getOriginalFilename())
-                .storagePath(storedPath)
-                .sizeBytes(file.getSize())
-                .build();
+                .sizeBytes(file.getSize());
+        if (inlineThreshold.toBytes() > 0 && file.getSize() <= inlineThreshold.toBytes()) {
+            meta.inlineContent(file.getBytes());
+        } else {
+            meta.storagePath(storageService.save(
+                    file.getInputStream(),
+                    file.getSize(),
+                    file.getOriginalFilename()
+            ));
+        }
 
-        return fileRepository.save(meta);
+        FileMetadata saved = fileRepository.save(meta.build());
+        usageAggregator.bytesReceived(file.getSize());
+        usageAggregator.uploadCompleted();
+        return saved;
     }
 
     public InputStream readFile(UUID fileId) throws IOException {
         FileMetadata file = fileRepository.findById(fileId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.FILE_NOT_FOUND, "File not found"));
-        return storageService.read(file.getStoragePath());
+        return file.isInline()
+                ? new ByteArrayInputStream(file.getInlineContent())
+                : storageService.read(file.getStoragePath());
     }
 
     public FileMetadata findMetadata(UUID fileId) {
@@ -0,0 +1,87 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.exception.RecordingInProgressException;
+import fr.se2eend.backend.monitoring.ChunkUploadEvent;
+import fr.se2eend.backend.monitoring.CleanupEvent;
+import fr.se2eend.backend.monitoring.SendDownloadEvent;
+import fr.se2eend.backend.monitoring.StorageOperationEvent;
+import fr.se2eend.backend.monitoring.UploadCompleteEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On-demand JDK Flight Recorder recordings for the admin diagnostics endpoint.
+ * Uses the JDK "profile" settings plus every application event with no threshold.
+ */
+@Service
+@Slf4j
+public class FlightRecordingService {
+
+    private static final List<Class<? extends jdk.jfr.Event>> APPLICATION_EVENTS = List.of(
+            ChunkUploadEvent.class,
+            UploadCompleteEvent.class,
+            SendDownloadEvent.class,
+            StorageOperationEvent.class,
+            CleanupEvent.class
+    );
+
+    /** Only one on-demand recording at a time: each one costs CPU and a temporary file. */
+    private final AtomicBoolean recording = new AtomicBoolean(false);
+
+    @Value("${diagnostics.jfr.max-duration-seconds:300}")
+    private long maxDurationSeconds;
+
+    /**
+     * Record for the given duration and return the path of the dumped {@code .jfr} file.
+     * The caller owns the file and must delete it once it has been sent.
+     */
+    public Path record(Duration duration) throws IOException, InterruptedException {
+        if (duration.isNegative() || duration.isZero() || duration.getSeconds() > maxDurationSeconds) {
+            throw new IllegalArgumentException(
+                    "Recording duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (!recording.compareAndSet(false, true)) {
+            throw new RecordingInProgressException();
+        }
+
+        try (Recording jfr = new Recording(profileConfiguration())) {
+            jfr.setName("se2eend-on-demand");
+            for (Class<? extends jdk.jfr.Event> eventClass : APPLICATION_EVENTS) {
+                jfr.enable(eventClass).withoutThreshold();
+            }
+
+            log.info("Starting on-demand JFR recording for {}s", duration.getSeconds());
+            jfr.start();
+            try {
+                Thread.sleep(duration.toMillis());
+            } finally {
+                jfr.stop();
+            }
+
+            Path file = Files.createTempFile("se2eend-", ".jfr");
+            jfr.dump(file);
+            return file;
+        } finally {
+            recording.set(false);
+        }
+    }
+
+    private static Configuration profileConfiguration() throws IOException {
+        try {
+            return Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("Cannot load JFR 'profile' settings", e);
+        }
+    }
+}
@@ -1,35 +1,63 @@
 package fr.se2eend.backend.service;
 
+import fr.se2eend.backend.cluster.ClusterEvent;
+import fr.se2eend.backend.cluster.ClusterNotifier;
+import fr.se2eend.backend.config.ReadReplicaRoutingDataSource;
 import fr.se2eend.backend.model.InstanceSetting;
 import fr.se2eend.backend.repository.InstanceSettingRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Instance settings, served from an immutable in-memory snapshot.
+ * <p>
+ * Reads never touch the database: they are plain map lookups on the current snapshot (numeric
+ * values are parsed once, when the snapshot is built). The snapshot is rebuilt and swapped on
+ * {@link #set}, when another instance announces a change through {@link ClusterNotifier}, and
+ * when the periodic check finds the table differs from it (missed notification, manual SQL). The
+ * table holds a handful of rows, so that check compares their content rather than a count or
+ * version summary, which can miss a change. These loads always read from the primary: a
+ * notification can arrive before the change reaches a read replica.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class InstanceSettingsService {
 
+    public static final String CLUSTER_TOPIC = "settings";
+
     private final InstanceSettingRepository repository;
+    private final ClusterNotifier clusterNotifier;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    private record Snapshot(Map<String, String> values, Map<String, Long> longs) {}
+
+    @PostConstruct
+    void load() {
+        reload();
+    }
 
     public String get(String key, String defaultValue) {
-        return repository.findById(key)
-                .map(InstanceSetting::getValue)
-                .orElse(defaultValue);
+        return snapshot.values().getOrDefault(key, defaultValue);
     }
 
     public boolean getBoolean(String key, boolean defaultValue) {
-        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+        String value = snapshot.values().get(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
     }
 
     public long getLong(String key, long defaultValue) {
-        try {
-            return Long.parseLong(get(key, String.valueOf(defaultValue)));
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        Long value = snapshot.longs().get(key);
+        return value == null ? defaultValue : value;
     }
 
     public void set(String key, String value) {
@@ -37,10 +65,54 @@ public class InstanceSettingsService {
                 .orElse(new InstanceSetting(key, value));
         setting.setValue(value);
         repository.save(setting);
+        reload();
+        clusterNotifier.publish(CLUSTER_TOPIC, key);
     }
 
     public Map<String, String> getAll() {
-        return repository.findAll().stream()
-                .collect(Collectors.toMap(InstanceSetting::getKey, InstanceSetting::getValue));
+        return snapshot.values();
+    }
+
+    /**
+     * Rebuild the snapshot from the database. Also to be called after changing the table directly.
+     */
+    public synchronized void reload() {
+        apply(ReadReplicaRoutingDataSource.onPrimary(repository::findAll));
+    }
+
+    private void apply(List<InstanceSetting> settings) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Long> longs = new HashMap<>();
+        for (InstanceSetting setting : settings) {
+            values.put(setting.getKey(), setting.getValue());
+            try {
+                longs.put(setting.getKey(), Long.parseLong(setting.getValue()));
+            } catch (NumberFormatException ignored) {
+                // Not a number: getLong falls back to its default, as before.
+            }
+        }
+        snapshot = new Snapshot(Map.copyOf(values), Map.copyOf(longs));
+    }
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+        if (event.concerns(CLUSTER_TOPIC)) {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${settings.refresh-interval-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        try {
+            List<InstanceSetting> settings = ReadReplicaRoutingDataSource.onPrimary(repository::findAll);
+            Map<String, String> values = new HashMap<>();
+            settings.forEach(setting -> values.put(setting.getKey(), setting.getValue()));
+            if (!values.equals(snapshot.values())) {
+                log.debug("Instance settings changed outside this instance, reloading");
+                apply(settings);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Instance settings change check failed: {}", e.getMessage());
+        }
     }
 }
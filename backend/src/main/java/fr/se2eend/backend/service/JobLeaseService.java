@@ -0,0 +1,144 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Leases on periodic jobs, so that a job scheduled on every instance runs on only one of them.
+ * A lease is a row of {@code job_leases}; taking it is a conditional update, committed on its own,
+ * so no coordinator is needed beyond the database.
+ * <p>
+ * A lease expires after its TTL: if its holder dies mid-job, the next run elsewhere takes it over.
+ * The TTL must therefore be longer than one run (or one shard of it). Instances compare their own
+ * clocks to the expiry, so their skew should stay well below the TTL.
+ */
+@Service
+@Slf4j
+public class JobLeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String holder;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${jobs.instance-id:}") String instanceId) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.holder = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+    }
+
+    public String holder() {
+        return holder;
+    }
+
+    /**
+     * @return whether this instance now holds {@code name} for {@code ttl}
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        Integer taken = transactionTemplate.execute(status -> jobLeaseRepository.takeOver(name, holder, now, expiresAt));
+        if (taken != null && taken > 0) {
+            return true;
+        }
+        // Held by someone else, or not created yet; creating it is a no-op in the first case.
+        Integer created = transactionTemplate.execute(status -> jobLeaseRepository.create(name, holder, now, expiresAt));
+        return created != null && created > 0;
+    }
+
+    /**
+     * Extend a lease this instance holds to {@code ttl} from now, for long jobs that check in
+     * between steps.
+     *
+     * @return false if the lease expired or was taken over: the job should stop
+     */
+    public boolean renew(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer renewed = transactionTemplate.execute(status -> jobLeaseRepository.renew(name, holder, now, now.plus(ttl)));
+        return renewed != null && renewed > 0;
+    }
+
+    /** Name of the lease {@link #runSharded} takes for one shard of {@code job}. */
+    public static String shardLease(String job, int shard) {
+        return job + "#" + shard;
+    }
+
+    /**
+     * Give the lease back. It stays held until {@code keepUntil}, so instances that come later to
+     * the same scheduled run skip it; pass {@code null} to free it now.
+     */
+    public void release(String name, LocalDateTime keepUntil) {
+        LocalDateTime expiresAt = keepUntil != null ? keepUntil : LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status -> jobLeaseRepository.expire(name, holder, expiresAt));
+        if (released == null || released == 0) {
+            log.warn("Lease {} expired and was taken over before {} released it", name, holder);
+        }
+    }
+
+    /**
+     * Run {@code work} if this instance gets the lease. A failed run frees the lease at once.
+     *
+     * @return whether it ran
+     */
+    public boolean runExclusive(String name, Duration ttl, LocalDateTime keepUntil, Runnable work) {
+        if (!tryAcquire(name, ttl)) {
+            return false;
+        }
+        boolean succeeded = false;
+        try {
+            work.run();
+            succeeded = true;
+        } finally {
+            release(name, succeeded ? keepUntil : null);
+        }
+        return true;
+    }
+
+    /**
+     * Run the shards {@code 0..shards-1} of a job that this instance gets the lease of, each under
+     * its own lease ({@code job#shard}). Instances start at a random shard, so when they all run the
+     * job at once they mostly take different shards and share the work. A failed shard is logged
+     * and left for the next run.
+     *
+     * @return the shards run here
+     */
+    public List<Integer> runSharded(String job, int shards, Duration ttl, LocalDateTime keepUntil, IntConsumer work) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+        List<Integer> ran = new ArrayList<>();
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = (start + i) % shards;
+            try {
+                if (runExclusive(shardLease(job, shard), ttl, keepUntil, () -> work.accept(shard))) {
+                    ran.add(shard);
+                }
+            } catch (RuntimeException e) {
+                log.error("Shard {} of {} failed", shard, job, e);
+            }
+        }
+        return ran;
+    }
+
+    private static String defaultInstanceId() {
+        String host = System.getenv("HOSTNAME");
+        return (host != null && !host.isBlank() ? host : "instance") + "-"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
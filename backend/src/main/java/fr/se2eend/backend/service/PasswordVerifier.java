@@ -0,0 +1,97 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.exception.PasswordVerificationBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks send passwords (BCrypt, ~100 ms of CPU each) on a small dedicated pool instead of the
+ * request thread, so a burst of attempts cannot take more than {@code threads} cores. Checks
+ * that do not fit in the bounded queue, or wait longer than the timeout, are shed with
+ * {@link PasswordVerificationBusyException} (503) rather than piling up.
+ */
+@Service
+@Slf4j
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${password-verification.threads:0}") int threads,
+                            @Value("${password-verification.queue-capacity:32}") int queueCapacity,
+                            @Value("${password-verification.timeout:5s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "password-verifier-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, hash));
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            throw new PasswordVerificationBusyException();
+        }
+        try {
+            boolean matches = result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            verified.increment();
+            return matches;
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            shed.increment();
+            throw new PasswordVerificationBusyException();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordVerificationBusyException();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        metrics.put("verified", verified.sum());
+        metrics.put("shed", shed.sum());
+        return metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
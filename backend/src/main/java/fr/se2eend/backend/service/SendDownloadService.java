@@ -5,64 +5,150 @@ import fr.se2eend.backend.exception.SendDownloadLimitExceededException;
 import fr.se2eend.backend.exception.SendExpiredException;
 import fr.se2eend.backend.exception.SendPasswordInvalidException;
 import fr.se2eend.backend.exception.SendRevokedException;
-import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.exception.enums.ErrorCode;
+import fr.se2eend.backend.dto.FileMetadataDto;
+import fr.se2eend.backend.dto.SendResponseDto;
 import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.monitoring.SendDownloadEvent;
+import fr.se2eend.backend.repository.FileRepository;
 import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.SendMetadataCache.CachedSend;
 import fr.se2eend.backend.storage.StorageService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class SendDownloadService {
 
     private final SendRepository sendRepository;
+    private final FileRepository fileRepository;
     private final StorageService storageService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final DownloadTokenService downloadTokenService;
+    private final SendMetadataCache sendMetadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final UsageAggregator usageAggregator;
 
-    @Transactional(rollbackFor = Exception.class)
     public DownloadStream downloadByAccessId(String accessId, String password) throws IOException {
-        Send send = sendRepository.findByAccessId(accessId)
+        return downloadByAccessId(accessId, password, null);
+    }
+
+    /**
+     * Open a send for download. Password-protected sends accept either the password or a download
+     * token from an earlier successful check; a password check returns a fresh token.
+     * <p>
+     * Not transactional as a whole: the password check runs before any database connection is
+     * taken, and only the counter update and storage open share a transaction. An inline payload
+     * is read from its row in that transaction instead, without touching storage.
+     */
+    public DownloadStream downloadByAccessId(String accessId, String password, String downloadToken) throws IOException {
+        SendDownloadEvent event = new SendDownloadEvent();
+        event.begin();
+        try {
+            DownloadStream stream = openDownload(accessId, password, downloadToken, event);
+            event.bytes = stream.sizeBytes() != null ? stream.sizeBytes() : 0L;
+            event.succeeded = true;
+            return stream;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.accessId = accessId;
+                event.commit();
+            }
+        }
+    }
+
+    private DownloadStream openDownload(String accessId, String password, String downloadToken,
+                                        SendDownloadEvent event) throws IOException {
+        CachedSend send = sendMetadataCache.get(accessId)
                 .orElseThrow(ResourceNotFoundException::sendNotFound);
+        SendResponseDto meta = send.dto();
 
-        if (send.isRevoked()) throw new SendRevokedException();
-        if (send.getExpiresAt() != null && send.getExpiresAt().isBefore(LocalDateTime.now()))
+        // Fast rejections from the cached state; the conditional update below is authoritative.
+        if (Boolean.TRUE.equals(meta.revoked())) throw new SendRevokedException();
+        if (meta.expiresAt() != null && meta.expiresAt().isBefore(LocalDateTime.now()))
             throw new SendExpiredException();
 
-        if (send.isPasswordProtected()) {
-            if (password == null || password.isBlank()) {
-                throw new SendPasswordInvalidException();
-            }
-            if (!passwordEncoder.matches(password, send.getPasswordHash())) {
-                throw new SendPasswordInvalidException();
+        event.passwordProtected = Boolean.TRUE.equals(meta.passwordProtected());
+        String issuedToken = null;
+        if (event.passwordProtected) {
+            event.tokenAccepted = downloadTokenService.verify(accessId, downloadToken);
+            if (!event.tokenAccepted) {
+                if (password == null || password.isBlank()) {
+                    throw new SendPasswordInvalidException();
+                }
+                if (!passwordVerifier.matches(password, send.passwordHash())) {
+                    throw new SendPasswordInvalidException();
+                }
+                issuedToken = downloadTokenService.issue(accessId);
             }
         }
 
-        if (send.getDownloadCount() >= send.getMaxDownloads()) {
-            throw new SendDownloadLimitExceededException();
-        }
-
-        FileMetadata file = send.getFile();
+        FileMetadataDto file = meta.file();
         if (file == null) {
+            // Sends without a file are never cached, so this counter is fresh.
+            if (meta.downloadCount() >= meta.maxDownloads()) {
+                throw new SendDownloadLimitExceededException();
+            }
             throw new ResourceNotFoundException(
-                    fr.se2eend.backend.exception.enums.ErrorCode.FILE_NOT_FOUND,
+                    ErrorCode.FILE_NOT_FOUND,
                     "No file attached to this send"
             );
         }
 
-        InputStream inputStream = storageService.read(file.getStoragePath());
+        InputStream inputStream;
+        try {
+            // The counter update and the storage open succeed or fail together.
+            inputStream = transactionTemplate.execute(status -> {
+                if (sendRepository.incrementDownloadCount(meta.id(), LocalDateTime.now()) == 0) {
+                    return null;
+                }
+                if (send.inline()) {
+                    return fileRepository.findInlineContentById(file.id())
+                            .map(content -> (InputStream) new ByteArrayInputStream(content))
+                            .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.FILE_NOT_FOUND, "File not found"));
+                }
+                try {
+                    return storageService.read(send.storagePath());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (inputStream == null) {
+            sendMetadataCache.evict(accessId);
+            throw refusalReason(meta.id());
+        }
+        sendMetadataCache.recordDownload(accessId);
+        usageAggregator.downloaded(file.sizeBytes());
 
-        send.setDownloadCount(send.getDownloadCount() + 1);
-        sendRepository.save(send);
+        return new DownloadStream(inputStream, file.filename(), file.sizeBytes(), issuedToken);
+    }
 
-        return new DownloadStream(inputStream, file.getFilename(), file.getSizeBytes());
+    /** Why the conditional update refused the download, checked in the same order as above. */
+    private RuntimeException refusalReason(UUID sendId) {
+        Send send = sendRepository.findById(sendId).orElse(null);
+        if (send == null) return ResourceNotFoundException.sendNotFound();
+        if (send.isRevoked()) return new SendRevokedException();
+        if (send.getExpiresAt() != null && send.getExpiresAt().isBefore(LocalDateTime.now()))
+            return new SendExpiredException();
+        return new SendDownloadLimitExceededException();
     }
 
-    public record DownloadStream(InputStream stream, String filename, Long sizeBytes) {}
+    /**
+     * @param downloadToken token to send back as {@code X-Download-Token} on follow-up requests,
+     *                      {@code null} unless a password was checked
+     */
+    public record DownloadStream(InputStream stream, String filename, Long sizeBytes, String downloadToken) {}
 }
\ No newline at end of file
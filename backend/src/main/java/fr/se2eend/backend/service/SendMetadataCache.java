@@ -0,0 +1,154 @@
+package fr.se2eend.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import fr.se2eend.backend.cluster.ClusterEvent;
+import fr.se2eend.backend.cluster.ClusterNotifier;
+import fr.se2eend.backend.config.ReadReplicaRoutingDataSource;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.mapper.SendMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-based cache of public send metadata keyed by access ID, in front of
+ * {@code SendRepository.findByAccessId} for the public lookup and download endpoints. Misses
+ * go through the {@link AccessIdFilter} first, so unknown IDs never reach the database.
+ * <p>
+ * Only sends that already have their file are cached, so everything a download needs (name,
+ * size, chunk size, storage path, password hash, expiry, limit) is immutable. The counter and
+ * revocation flag carried along are for display only: downloads re-check them in the database
+ * (see {@link SendDownloadService}). Entries are evicted on revoke, delete and download
+ * exhaustion, locally and on the other instances through {@link ClusterNotifier}. Misses are
+ * read from the primary: a lagging replica could otherwise hand back, right after such an
+ * eviction, the row it was about, and it would stay cached for the whole TTL.
+ */
+@Service
+public class SendMetadataCache {
+
+    public static final String CLUSTER_TOPIC = "sends";
+
+    private final SendRepository sendRepository;
+    private final SendMapper sendMapper;
+    private final ClusterNotifier clusterNotifier;
+    private final AccessIdFilter accessIdFilter;
+    private final Cache<String, CachedSend> cache;
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param dto          public representation, as returned by {@code GET /api/v1/sends/{accessId}}
+     * @param passwordHash BCrypt hash, {@code null} if not password protected
+     * @param storagePath  storage key of the attached file, {@code null} if its payload is inline
+     */
+    public record CachedSend(SendResponseDto dto, String passwordHash, String storagePath) {
+
+        public boolean inline() {
+            return dto.file() != null && storagePath == null;
+        }
+    }
+
+    public SendMetadataCache(SendRepository sendRepository,
+                             SendMapper sendMapper,
+                             ClusterNotifier clusterNotifier,
+                             AccessIdFilter accessIdFilter,
+                             @Value("${cache.sends.max-size:10000}") long maxSize,
+                             @Value("${cache.sends.ttl:5m}") Duration ttl) {
+        this.sendRepository = sendRepository;
+        this.sendMapper = sendMapper;
+        this.clusterNotifier = clusterNotifier;
+        this.accessIdFilter = accessIdFilter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<CachedSend> get(String accessId) {
+        CachedSend cached = cache.getIfPresent(accessId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (!accessIdFilter.mightContain(accessId)) {
+            return Optional.empty();
+        }
+        return ReadReplicaRoutingDataSource.onPrimary(() -> sendRepository.findByAccessId(accessId)).map(send -> {
+            CachedSend loaded = toCached(send);
+            if (send.getFile() != null) {
+                cache.put(accessId, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /** Reflect a successful download in the cached counter, evicting the entry once exhausted. */
+    public void recordDownload(String accessId) {
+        CachedSend updated = cache.asMap().computeIfPresent(accessId, (key, cached) -> {
+            SendResponseDto dto = cached.dto();
+            int count = dto.downloadCount() + 1;
+            return count >= dto.maxDownloads() ? null : new CachedSend(
+                    sendMapper.withDownloadCount(dto, count), cached.passwordHash(), cached.storagePath());
+        });
+        if (updated == null) {
+            evict(accessId);
+        }
+    }
+
+    /**
+     * Drop the entry here and on every other instance. Inside a transaction the entry is dropped
+     * again after commit, in case a concurrent lookup re-cached the pre-commit state.
+     */
+    public void evict(String accessId) {
+        invalidations.increment();
+        cache.invalidate(accessId);
+        clusterNotifier.publish(CLUSTER_TOPIC, accessId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(accessId);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+        if (ClusterEvent.RESYNC.equals(event.topic())) {
+            cache.invalidateAll();
+        } else if (CLUSTER_TOPIC.equals(event.topic())) {
+            cache.invalidate(event.payload());
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", cache.estimatedSize());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("invalidations", invalidations.sum());
+        return metrics;
+    }
+
+    private CachedSend toCached(Send send) {
+        return new CachedSend(
+                sendMapper.toDto(send),
+                send.getPasswordHash(),
+                send.getFile() != null ? send.getFile().getStoragePath() : null);
+    }
+}
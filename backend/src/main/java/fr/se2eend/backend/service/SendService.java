@@ -1,6 +1,8 @@
 package fr.se2eend.backend.service;
 
 import fr.se2eend.backend.config.SecurityUtils;
+import fr.se2eend.backend.dto.CursorPage;
+import fr.se2eend.backend.dto.SendCursor;
 import fr.se2eend.backend.dto.SendRequestDto;
 import fr.se2eend.backend.dto.SendResponseDto;
 import fr.se2eend.backend.exception.ResourceNotFoundException;
@@ -9,11 +11,14 @@ import fr.se2eend.backend.model.FileMetadata;
 import fr.se2eend.backend.model.Send;
 import fr.se2eend.backend.model.enums.DeleteReason;
 import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.SendListRow;
 import fr.se2eend.backend.repository.SendRepository;
 import fr.se2eend.backend.service.mapper.SendMapper;
 import fr.se2eend.backend.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -32,33 +37,78 @@ import java.util.UUID;
 @Slf4j
 public class SendService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final SendRepository sendRepository;
     private final DeletedSendRepository deletedSendRepository;
     private final SendMapper sendMapper;
     private final PasswordEncoder passwordEncoder;
     private final StorageService storageService;
     private final InstanceSettingsService instanceSettingsService;
+    private final SendMetadataCache sendMetadataCache;
+    private final UsageAggregator usageAggregator;
+    private final AccessIdFilter accessIdFilter;
+
+    /** Most sends returned by the unpaged {@link #findAll}; the rest follow its {@code nextCursor}. */
+    @Value("${sends.list-limit:1000}")
+    private int listLimit;
 
-    public List<SendResponseDto> findAll() {
+    /**
+     * The caller's newest sends, at most {@code sends.list-limit} of them. When there are more, the
+     * returned {@code nextCursor} continues with {@link #findPage}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<SendResponseDto> findAll() {
+        return listing(null, listLimit);
+    }
+
+    /**
+     * The caller's sends, newest first, one keyset page at a time: pass a blank cursor for the
+     * first page, then the returned {@code nextCursor}. Not counted.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<SendResponseDto> findPage(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return listing(SendCursor.decode(cursor), size);
+    }
+
+    private CursorPage<SendResponseDto> listing(SendCursor after, int size) {
         UUID ownerId = extractUserIdFromToken();
         if (ownerId == null) {
-            return List.of();
+            return new CursorPage<>(List.of(), null, null, false);
         }
-        return sendRepository.findByOwnerIdOrderByCreatedAtDesc(ownerId)
-                .stream()
-                .map(sendMapper::toDto)
-                .toList();
+
+        // One extra row tells whether there is a next page.
+        Limit limit = Limit.of(size + 1);
+        List<SendListRow> rows = after == null
+                ? sendRepository.findListingByOwnerId(ownerId, limit)
+                : sendRepository.findListingByOwnerIdAfter(ownerId, after.createdAt(), after.id(), limit);
+        boolean hasNext = rows.size() > size;
+        List<SendListRow> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            SendListRow last = content.get(content.size() - 1);
+            nextCursor = new SendCursor(last.createdAt(), last.id()).encode();
+        }
+        return new CursorPage<>(content.stream().map(sendMapper::toDto).toList(), nextCursor, null, false);
     }
 
+    @Transactional(readOnly = true)
     public SendResponseDto findById(UUID id) {
         return sendRepository.findById(id)
                 .map(sendMapper::toDto)
                 .orElseThrow(ResourceNotFoundException::sendNotFound);
     }
 
+    /**
+     * Not a transaction of its own, so cache hits take no connection; a miss is read by the
+     * repository's read-only transaction, from the primary (see {@link SendMetadataCache}).
+     */
     public SendResponseDto findByAccessId(String accessId) {
-        return sendRepository.findByAccessId(accessId)
-                .map(sendMapper::toDto)
+        return sendMetadataCache.get(accessId)
+                .map(SendMetadataCache.CachedSend::dto)
                 .orElseThrow(ResourceNotFoundException::sendNotFound);
     }
 
@@ -89,7 +139,10 @@ public class SendService {
             entity.setPasswordHash(null);
         }
 
-        return sendMapper.toDto(sendRepository.save(entity));
+        SendResponseDto created = sendMapper.toDto(sendRepository.save(entity));
+        accessIdFilter.register(entity.getAccessId());
+        usageAggregator.sendCreated();
+        return created;
     }
 
     private UUID extractUserIdFromToken() {
@@ -123,7 +176,7 @@ public class SendService {
     /**
      * Generate a URL-safe base64 encoded access ID from a UUID.
      */
-    private String generateAccessId() {
+    public static String generateAccessId() {
         UUID uuid = UUID.randomUUID();
         ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
         bb.putLong(uuid.getMostSignificantBits());
@@ -143,7 +196,10 @@ public class SendService {
         FileMetadata file = send.getFile();
         if (file != null) {
             try {
-                storageService.delete(file.getStoragePath());
+                // Inline payloads go away with the row.
+                if (!file.isInline()) {
+                    storageService.delete(file.getStoragePath());
+                }
                 totalSize += file.getSizeBytes();
             } catch (Exception e) {
                 log.error("Failed to delete file {} from storage: {}", file.getStoragePath(), e.getMessage());
@@ -164,5 +220,7 @@ public class SendService {
 
         deletedSendRepository.save(audit);
         sendRepository.delete(send);
+        sendMetadataCache.evict(send.getAccessId());
+        usageAggregator.deleted(DeleteReason.USER);
     }
 }
@@ -0,0 +1,160 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.StagedFileRow;
+import fr.se2eend.backend.storage.StagingStorage;
+import fr.se2eend.backend.storage.StorageLayers;
+import fr.se2eend.backend.storage.StorageProperties;
+import fr.se2eend.backend.storage.StorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished uploads out of the {@link StagingStorage} tier: each staged file is copied to the
+ * storage provider, then its row is repointed to the copy and its cached send evicted, so downloads
+ * switch over on their next lookup. The staged copy is removed by {@link #sweep} once no row refers
+ * to it any more, and no cached send can still point to it: {@code retain-after-promotion} must be
+ * at least {@code cache.sends.ttl}. Does nothing unless {@code storage.staging.enabled} is set.
+ */
+@Service
+@Slf4j
+public class StagingPromotionService {
+
+    /** Files promoted per run; the next run takes the rest. */
+    private static final int BATCH_SIZE = 100;
+
+    private final StagingStorage staging;
+    private final FileRepository fileRepository;
+    private final SendMetadataCache sendMetadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retainAfterPromotion;
+    private final ExecutorService executor;
+
+    public StagingPromotionService(StorageService storageService,
+                                   StorageProperties storageProperties,
+                                   FileRepository fileRepository,
+                                   SendMetadataCache sendMetadataCache,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${cache.sends.ttl:5m}") Duration sendCacheTtl) {
+        this.staging = StorageLayers.find(storageService, StagingStorage.class).orElse(null);
+        this.fileRepository = fileRepository;
+        this.sendMetadataCache = sendMetadataCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retainAfterPromotion = storageProperties.getStaging().getRetainAfterPromotion();
+        if (staging != null && retainAfterPromotion.compareTo(sendCacheTtl) < 0) {
+            throw new IllegalStateException("storage.staging.retain-after-promotion (" + retainAfterPromotion
+                    + ") must be at least cache.sends.ttl (" + sendCacheTtl
+                    + "), or downloads may resolve a staged file that was already swept");
+        }
+
+        int concurrency = Math.max(1, storageProperties.getStaging().getPromotionConcurrency());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, task -> {
+            Thread thread = new Thread(task, "staging-promotion-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return staging != null;
+    }
+
+    /**
+     * Promote up to one batch of staged files, {@code storage.staging.promotion-concurrency} at a time.
+     *
+     * @return the number of files promoted
+     */
+    public int promotePending() {
+        if (staging == null) {
+            return 0;
+        }
+        List<StagedFileRow> rows = fileRepository.findStaged(Limit.of(BATCH_SIZE));
+        List<Future<Boolean>> results = new ArrayList<>(rows.size());
+        for (StagedFileRow row : rows) {
+            results.add(executor.submit(() -> promote(row)));
+        }
+
+        int promoted = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (results.get(i).get()) {
+                    promoted++;
+                }
+            } catch (ExecutionException e) {
+                log.warn("Failed to promote staged file {}: {}", rows.get(i).id(), e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return promoted;
+    }
+
+    private boolean promote(StagedFileRow row) throws IOException {
+        String promotedPath;
+        try {
+            promotedPath = staging.promote(row.storagePath());
+        } catch (NoSuchFileException e) {
+            // Deleted with its send since the batch was read.
+            return false;
+        }
+
+        Integer updated = transactionTemplate.execute(
+                status -> fileRepository.promote(row.id(), row.storagePath(), promotedPath));
+        if (updated != null && updated > 0) {
+            sendMetadataCache.evict(row.accessId());
+            return true;
+        }
+        if (!fileRepository.existsById(row.id())) {
+            staging.getBackend().delete(promotedPath);
+        }
+        return false;
+    }
+
+    /**
+     * Delete the staged files no row refers to any more, once they are older than
+     * {@code storage.staging.retain-after-promotion}.
+     *
+     * @return the number of files deleted
+     */
+    public int sweep() throws IOException {
+        if (staging == null) {
+            return 0;
+        }
+        Set<String> referenced = fileRepository.findStaged(Limit.unlimited()).stream()
+                .map(StagedFileRow::storagePath)
+                .collect(Collectors.toSet());
+        return staging.sweep(retainAfterPromotion, referenced::contains);
+    }
+
+    /** Correct this instance's count of staged bytes (see {@link StagingStorage#recount}). */
+    public void recount() throws IOException {
+        if (staging != null) {
+            staging.recount();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
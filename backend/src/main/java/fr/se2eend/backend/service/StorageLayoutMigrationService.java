@@ -0,0 +1,96 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.exception.StorageMigrationInProgressException;
+import fr.se2eend.backend.storage.LocalFileSystemStorage;
+import fr.se2eend.backend.storage.PackFileStorage;
+import fr.se2eend.backend.storage.StorageLayers;
+import fr.se2eend.backend.storage.StorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs {@link LocalFileSystemStorage#migrateLayout} in the background for the admin endpoint,
+ * one migration at a time per instance, and keeps the outcome of the last one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageLayoutMigrationService {
+
+    private static final int MAX_PARALLELISM = 32;
+
+    private final StorageService storageService;
+
+    private Thread worker;
+    private Map<String, Object> status = Map.of("state", "idle");
+
+    public synchronized Map<String, Object> start(int parallelism, double movesPerSecond) {
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM) {
+            throw new IllegalArgumentException("parallelism must be between 1 and " + MAX_PARALLELISM);
+        }
+        if (!(movesPerSecond > 0)) {
+            throw new IllegalArgumentException("movesPerSecond must be positive");
+        }
+        LocalFileSystemStorage local = localStorage();
+        if (local == null) {
+            throw new IllegalArgumentException("The configured storage provider has no local directory layout");
+        }
+        if (worker != null && worker.isAlive()) {
+            throw new StorageMigrationInProgressException();
+        }
+
+        Instant startedAt = Instant.now();
+        status = Map.of("state", "running", "startedAt", startedAt,
+                "parallelism", parallelism, "movesPerSecond", movesPerSecond);
+        worker = new Thread(() -> run(local, parallelism, movesPerSecond, startedAt), "storage-layout-migration");
+        worker.setDaemon(true);
+        worker.start();
+        return status;
+    }
+
+    public synchronized Map<String, Object> status() {
+        return status;
+    }
+
+    private void run(LocalFileSystemStorage local, int parallelism, double movesPerSecond, Instant startedAt) {
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        try {
+            log.info("Storage layout migration started ({} moves at a time, {}/s)", parallelism, movesPerSecond);
+            outcome.putAll(local.migrateLayout(parallelism, movesPerSecond));
+            outcome.put("state", "finished");
+            log.info("Storage layout migration finished: {}", outcome);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome.put("state", "interrupted");
+        } catch (Exception e) {
+            log.error("Storage layout migration failed", e);
+            outcome.put("state", "failed");
+            outcome.put("error", e.getMessage());
+        }
+        outcome.put("startedAt", startedAt);
+        outcome.put("finishedAt", Instant.now());
+        synchronized (this) {
+            status = outcome;
+        }
+    }
+
+    private LocalFileSystemStorage localStorage() {
+        return StorageLayers.find(storageService, PackFileStorage.class)
+                .map(PackFileStorage::getStandalone)
+                .or(() -> StorageLayers.find(storageService, LocalFileSystemStorage.class))
+                .orElse(null);
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package fr.se2eend.backend.service;
 
+import fr.se2eend.backend.storage.PackFileStorage;
+import fr.se2eend.backend.storage.StagingStorage;
+import fr.se2eend.backend.storage.StorageLayers;
+import fr.se2eend.backend.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -17,6 +21,8 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class StorageMetricsService {
 
+    private final StorageService storageService;
+
     @Value("${storage.local.base-directory:./uploads}")
     private String baseDirectory;
 
@@ -53,6 +59,11 @@ public class StorageMetricsService {
         }
 
         metrics.put("storagePath", storageDir.getAbsolutePath());
+        StorageLayers.find(storageService, PackFileStorage.class)
+                .ifPresent(packs -> metrics.put("packs", packs.metrics()));
+        StorageLayers.find(storageService, StagingStorage.class)
+                .ifPresent(staging -> metrics.put("staging",
+                        Map.of("usedBytes", staging.usedBytes(), "maxBytes", staging.maxBytes())));
 
         return metrics;
     }
@@ -0,0 +1,139 @@
+package fr.se2eend.backend.service;
+
+import fr.se2eend.backend.model.UsageHour;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.model.enums.UsageMetric;
+import fr.se2eend.backend.repository.UsageHourRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts uploads, downloads and deletions in memory, per hour, and adds them to the
+ * {@code usage_hourly} rollup once a minute. Recording is a striped counter increment, so it
+ * never touches the database on the request path.
+ * <p>
+ * Every instance flushes its own deltas; the rows hold the sum. A failed flush keeps its deltas
+ * for the next one. Counts still in memory when an instance dies are lost.
+ */
+@Service
+@Slf4j
+public class UsageAggregator {
+
+    private static final int METRICS = UsageMetric.values().length;
+
+    private final UsageHourRepository usageHourRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    private final Map<LocalDateTime, LongAdder[]> hours = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UsageAggregator(UsageHourRepository usageHourRepository, TransactionTemplate transactionTemplate) {
+        this(usageHourRepository, transactionTemplate, Clock.systemDefaultZone());
+    }
+
+    /** With {@code clock} deciding the hour each count goes to. */
+    public UsageAggregator(UsageHourRepository usageHourRepository, TransactionTemplate transactionTemplate,
+                           Clock clock) {
+        this.usageHourRepository = usageHourRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    public void sendCreated() {
+        record(UsageMetric.SENDS_CREATED, 1);
+    }
+
+    /** Encrypted bytes received, as a whole file or one chunk at a time. */
+    public void bytesReceived(long bytes) {
+        record(UsageMetric.BYTES_IN, bytes);
+    }
+
+    public void uploadCompleted() {
+        record(UsageMetric.UPLOADS_COMPLETED, 1);
+    }
+
+    public void downloaded(long bytes) {
+        record(UsageMetric.DOWNLOADS, 1);
+        record(UsageMetric.BYTES_OUT, bytes);
+    }
+
+    public void deleted(DeleteReason reason) {
+        record(UsageMetric.deleted(reason), 1);
+    }
+
+    private void record(UsageMetric metric, long amount) {
+        hours.computeIfAbsent(currentHour(), hour -> newCounters())[metric.ordinal()].add(amount);
+    }
+
+    @Scheduled(fixedDelayString = "${usage.flush-interval-ms:60000}")
+    @PreDestroy
+    public void flush() {
+        LocalDateTime currentHour = currentHour();
+        hours.forEach((hour, counters) -> {
+            long[] deltas = new long[METRICS];
+            boolean empty = true;
+            for (int i = 0; i < METRICS; i++) {
+                deltas[i] = counters[i].sumThenReset();
+                empty &= deltas[i] == 0;
+            }
+            if (empty) {
+                // Nothing recorded since the last flush: a past hour is done.
+                if (hour.isBefore(currentHour)) {
+                    hours.remove(hour, counters);
+                }
+                return;
+            }
+            try {
+                write(hour, deltas);
+            } catch (RuntimeException e) {
+                log.warn("Could not flush usage for {}, will retry: {}", hour, e.getMessage());
+                for (int i = 0; i < METRICS; i++) {
+                    counters[i].add(deltas[i]);
+                }
+            }
+        });
+    }
+
+    private void write(LocalDateTime hour, long[] deltas) {
+        try {
+            addTo(hour, deltas);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first; it exists now.
+            addTo(hour, deltas);
+        }
+    }
+
+    private void addTo(LocalDateTime hour, long[] deltas) {
+        transactionTemplate.executeWithoutResult(status -> {
+            UsageHour row = usageHourRepository.findWithLockByHourStart(hour)
+                    .orElseGet(() -> new UsageHour(hour));
+            row.add(deltas);
+            usageHourRepository.saveAndFlush(row);
+        });
+    }
+
+    private LocalDateTime currentHour() {
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[METRICS];
+        for (int i = 0; i < METRICS; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -5,6 +5,7 @@ import fr.se2eend.backend.dto.SendRequestDto;
 import fr.se2eend.backend.dto.SendResponseDto;
 import fr.se2eend.backend.model.FileMetadata;
 import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.repository.SendListRow;
 import org.springframework.stereotype.Component;
 
 
@@ -54,6 +55,54 @@ public class SendMapper {
         );
     }
 
+    /**
+     * Convert a listing row (send and file columns from one query) to SendResponseDto.
+     */
+    public SendResponseDto toDto(SendListRow row) {
+        FileMetadataDto fileDto = row.fileId() != null
+                ? new FileMetadataDto(row.fileId(), row.filename(), row.sizeBytes(), row.chunkSize())
+                : null;
+
+        return new SendResponseDto(
+                row.id(),
+                row.accessId(),
+                row.ownerId() != null ? row.ownerId().toString() : null,
+                row.ownerName(),
+                row.ownerEmail(),
+                row.name(),
+                row.type(),
+                row.expiresAt(),
+                row.maxDownloads(),
+                row.downloadCount(),
+                row.passwordProtected(),
+                row.revoked(),
+                row.createdAt(),
+                fileDto
+        );
+    }
+
+    /**
+     * Copy of a SendResponseDto with another download count.
+     */
+    public SendResponseDto withDownloadCount(SendResponseDto dto, int downloadCount) {
+        return new SendResponseDto(
+                dto.id(),
+                dto.accessId(),
+                dto.ownerId(),
+                dto.ownerName(),
+                dto.ownerEmail(),
+                dto.name(),
+                dto.type(),
+                dto.expiresAt(),
+                dto.maxDownloads(),
+                downloadCount,
+                dto.passwordProtected(),
+                dto.revoked(),
+                dto.createdAt(),
+                dto.file()
+        );
+    }
+
     /**
      * Convert a FileMetadata entity to its lightweight DTO.
      */
@@ -0,0 +1,105 @@
+package fr.se2eend.backend.storage;
+
+import fr.se2eend.backend.monitoring.StorageOperationEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Decorator emitting a JFR {@link StorageOperationEvent} around every call to the wrapped backend.
+ * Events are discarded by the JVM when no recording has them enabled, so the wrapper stays on.
+ */
+public class InstrumentedStorageService implements StorageService {
+
+    private final StorageService delegate;
+    private final String backend;
+
+    public InstrumentedStorageService(StorageService delegate, String backend) {
+        this.delegate = delegate;
+        this.backend = backend;
+    }
+
+    public StorageService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String save(InputStream data, long contentLength, String suggestedName) throws IOException {
+        StorageOperationEvent event = begin();
+        try {
+            String storagePath = delegate.save(data, contentLength, suggestedName);
+            event.succeeded = true;
+            return storagePath;
+        } finally {
+            commit(event, "save", suggestedName, contentLength);
+        }
+    }
+
+    @Override
+    public InputStream read(String storagePath) throws IOException {
+        StorageOperationEvent event = begin();
+        try {
+            InputStream stream = delegate.read(storagePath);
+            event.succeeded = true;
+            return stream;
+        } finally {
+            commit(event, "read", storagePath, 0L);
+        }
+    }
+
+    @Override
+    public boolean delete(String storagePath) throws IOException {
+        StorageOperationEvent event = begin();
+        try {
+            boolean deleted = delegate.delete(storagePath);
+            event.succeeded = true;
+            return deleted;
+        } finally {
+            commit(event, "delete", storagePath, 0L);
+        }
+    }
+
+    @Override
+    public OptionalLong size(String storagePath) throws IOException {
+        StorageOperationEvent event = begin();
+        OptionalLong size = OptionalLong.empty();
+        try {
+            size = delegate.size(storagePath);
+            event.succeeded = true;
+            return size;
+        } finally {
+            commit(event, "size", storagePath, size.orElse(0L));
+        }
+    }
+
+    @Override
+    public String concatenate(List<String> sourcePaths, long totalSize, String suggestedName) throws IOException {
+        StorageOperationEvent event = begin();
+        try {
+            String storagePath = delegate.concatenate(sourcePaths, totalSize, suggestedName);
+            event.succeeded = true;
+            return storagePath;
+        } finally {
+            commit(event, "concatenate", suggestedName, totalSize);
+        }
+    }
+
+    private static StorageOperationEvent begin() {
+        StorageOperationEvent event = new StorageOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commit(StorageOperationEvent event, String operation, String storagePath, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.backend = backend;
+            event.operation = operation;
+            event.storagePath = storagePath;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -1,61 +1,281 @@
 package fr.se2eend.backend.storage;
 
+import lombok.extern.slf4j.Slf4j;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 /**
  * Simple local file system implementation of StorageService.
+ * <p>
+ * With {@code fanOutLevels > 0}, objects are spread over nested hash-prefix directories so that no
+ * directory grows to hundreds of thousands of entries: a top-level key {@code <name>} is stored at
+ * {@code ab/cd/<name>}, a nested key {@code <dir>/<group>/...} at {@code <dir>/ab/cd/<group>/...}
+ * (so all the chunks of an upload session stay together). The prefix comes from a hash of
+ * {@code name} or {@code group}, never from the key itself, so storage paths kept in the database do
+ * not change. Objects written before the layout was enabled are still found at their flat location
+ * until {@link #migrateLayout} moves them.
  */
+@Slf4j
 public class LocalFileSystemStorage implements StorageService {
 
+    private static final Pattern FAN_OUT_DIR = Pattern.compile("[0-9a-f]{2}");
+    private static final int MAX_FAN_OUT_LEVELS = 4;
+
     private final Path baseDir;
+    private final int fanOutLevels;
 
     public LocalFileSystemStorage(StorageProperties props) {
-        this.baseDir = Path.of(props.getBaseDir()).toAbsolutePath().normalize();
+        this(Path.of(props.getBaseDir()), props.getLocal().getFanOutLevels());
+    }
+
+    public LocalFileSystemStorage(Path baseDir, int fanOutLevels) {
+        if (fanOutLevels < 0 || fanOutLevels > MAX_FAN_OUT_LEVELS) {
+            throw new IllegalArgumentException("storage.local.fan-out-levels must be between 0 and " + MAX_FAN_OUT_LEVELS);
+        }
+        this.baseDir = baseDir.toAbsolutePath().normalize();
+        this.fanOutLevels = fanOutLevels;
         try {
-            Files.createDirectories(baseDir);
+            Files.createDirectories(this.baseDir);
         } catch (IOException e) {
-            throw new RuntimeException("Cannot create base storage directory: " + baseDir, e);
+            throw new RuntimeException("Cannot create base storage directory: " + this.baseDir, e);
         }
     }
 
     @Override
     public String save(InputStream data, long size, String suggestedName) throws IOException {
-        Path target = baseDir.resolve(suggestedName).normalize();
-        if (!target.startsWith(baseDir)) {
-            throw new SecurityException("Invalid path: " + suggestedName);
-        }
+        Path flat = flatPath(suggestedName);
+        Path target = layoutPath(flat);
         Files.createDirectories(target.getParent());
         Files.copy(data, target, StandardCopyOption.REPLACE_EXISTING);
-        return baseDir.relativize(target).toString();
+        if (!target.equals(flat)) {
+            // A stale copy at the flat location would come back if this one is deleted.
+            Files.deleteIfExists(flat);
+        }
+        return baseDir.relativize(flat).toString();
     }
 
     @Override
     public InputStream read(String storagePath) throws IOException {
-        Path path = baseDir.resolve(storagePath).normalize();
-        if (!path.startsWith(baseDir)) {
-            throw new SecurityException("Invalid path: " + storagePath);
+        Path flat = flatPath(storagePath);
+        Path target = layoutPath(flat);
+        if (target.equals(flat)) {
+            return Files.newInputStream(flat, StandardOpenOption.READ);
+        }
+        try {
+            return Files.newInputStream(target, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            try {
+                return Files.newInputStream(flat, StandardOpenOption.READ);
+            } catch (NoSuchFileException stillMissing) {
+                // Moved by the migration between the two attempts.
+                return Files.newInputStream(target, StandardOpenOption.READ);
+            }
         }
-        return Files.newInputStream(path, StandardOpenOption.READ);
     }
 
     @Override
     public boolean delete(String storagePath) throws IOException {
-        Path path = baseDir.resolve(storagePath).normalize();
-        if (!path.startsWith(baseDir)) {
-            throw new SecurityException("Invalid path: " + storagePath);
+        Path flat = flatPath(storagePath);
+        Path target = layoutPath(flat);
+        boolean deleted = Files.deleteIfExists(target);
+        if (!target.equals(flat)) {
+            deleted |= Files.deleteIfExists(flat);
         }
-        return Files.deleteIfExists(path);
+        return deleted;
     }
 
     @Override
     public OptionalLong size(String storagePath) throws IOException {
+        Path flat = flatPath(storagePath);
+        Path target = layoutPath(flat);
+        if (target.equals(flat)) {
+            return OptionalLong.of(Files.size(flat));
+        }
+        try {
+            return OptionalLong.of(Files.size(target));
+        } catch (NoSuchFileException e) {
+            try {
+                return OptionalLong.of(Files.size(flat));
+            } catch (NoSuchFileException stillMissing) {
+                return OptionalLong.of(Files.size(target));
+            }
+        }
+    }
+
+    /**
+     * Move the objects still at their flat location into the fan-out layout, {@code parallelism}
+     * moves at a time and at most {@code movesPerSecond} per second. Safe to run while the
+     * application serves traffic (reads fall back to the flat location, each move is one atomic
+     * rename) and to run again after an interruption.
+     *
+     * @return counts of moved, skipped (gone meanwhile) and failed entries
+     */
+    public Map<String, Object> migrateLayout(int parallelism, double movesPerSecond) throws IOException, InterruptedException {
+        if (parallelism < 1 || movesPerSecond <= 0) {
+            throw new IllegalArgumentException("parallelism and movesPerSecond must be positive");
+        }
+        AtomicLong moved = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long started = System.nanoTime();
+
+        if (fanOutLevels > 0) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / movesPerSecond);
+            AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+            // Bounded queue: the producer runs moves itself rather than listing the whole tree in memory.
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(parallelism * 16), new ThreadPoolExecutor.CallerRunsPolicy());
+            try {
+                forEachFlatEntry(entry -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Storage layout migration interrupted");
+                    }
+                    executor.execute(() -> {
+                        try {
+                            pace(nextSlot, interval);
+                            if (!relocate(entry, layoutPath(entry))) {
+                                skipped.incrementAndGet();
+                            } else if (moved.incrementAndGet() % 10_000 == 0) {
+                                log.info("Storage layout migration: {} entries moved", moved.get());
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (IOException | RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.warn("Failed to relocate {}: {}", baseDir.relativize(entry), e.toString());
+                        }
+                    });
+                });
+            } finally {
+                if (Thread.currentThread().isInterrupted()) {
+                    executor.shutdownNow();
+                } else {
+                    executor.shutdown();
+                }
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.info("Storage layout migration: waiting for in-flight moves");
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fanOutLevels", fanOutLevels);
+        result.put("moved", moved.get());
+        result.put("skipped", skipped.get());
+        result.put("failed", failed.get());
+        result.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return result;
+    }
+
+    /**
+     * Feed every flat entry to {@code action}: top-level files, and the group directories one level
+     * below a top-level directory. Hash-prefix directories and hidden directories are left alone.
+     */
+    private void forEachFlatEntry(IOConsumer<Path> action) throws IOException {
+        try (DirectoryStream<Path> top = Files.newDirectoryStream(baseDir)) {
+            for (Path entry : top) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith(".") || Files.isSymbolicLink(entry)) {
+                    continue;
+                }
+                if (Files.isRegularFile(entry)) {
+                    action.accept(entry);
+                } else if (Files.isDirectory(entry) && !FAN_OUT_DIR.matcher(name).matches()) {
+                    try (DirectoryStream<Path> groups = Files.newDirectoryStream(entry)) {
+                        for (Path group : groups) {
+                            if (!FAN_OUT_DIR.matcher(group.getFileName().toString()).matches()) {
+                                action.accept(group);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Move {@code source} to {@code target}. If the target already exists (an upload session that
+     * received chunks on both layouts), directories are merged and the copy at the layout location
+     * wins, being the most recent one. Returns false when the source is gone.
+     */
+    private static boolean relocate(Path source, Path target) throws IOException {
+        try {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                return true;
+            }
+            if (Files.isDirectory(source) && Files.isDirectory(target)) {
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(source)) {
+                    for (Path child : children) {
+                        relocate(child, target.resolve(child.getFileName().toString()));
+                    }
+                }
+            }
+            Files.deleteIfExists(source);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static void pace(AtomicLong nextSlot, long interval) throws InterruptedException {
+        long now = System.nanoTime();
+        long slot = Math.max(nextSlot.getAndUpdate(next -> Math.max(next, now) + interval), now);
+        if (slot > now) {
+            TimeUnit.NANOSECONDS.sleep(slot - now);
+        }
+    }
+
+    private Path flatPath(String storagePath) {
         Path path = baseDir.resolve(storagePath).normalize();
-        if (!path.startsWith(baseDir)) {
+        if (!path.startsWith(baseDir) || path.equals(baseDir)) {
             throw new SecurityException("Invalid path: " + storagePath);
         }
-        return OptionalLong.of(Files.size(path));
+        return path;
+    }
+
+    /** Where the object (or group directory) at {@code flat} lives in the fan-out layout. */
+    private Path layoutPath(Path flat) {
+        if (fanOutLevels == 0) {
+            return flat;
+        }
+        Path relative = baseDir.relativize(flat);
+        int hashed = relative.getNameCount() == 1 ? 0 : 1;
+        Path parent = hashed == 0 ? baseDir : baseDir.resolve(relative.getName(0));
+        String prefix = fanOutPrefix(relative.getName(hashed).toString());
+        for (int level = 0; level < fanOutLevels; level++) {
+            parent = parent.resolve(prefix.substring(level * 2, level * 2 + 2));
+        }
+        return parent.resolve(relative.subpath(hashed, relative.getNameCount()));
+    }
+
+    private String fanOutPrefix(String name) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, fanOutLevels);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOConsumer<T> {
+        void accept(T value) throws IOException;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,578 @@
+package fr.se2eend.backend.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Log-structured local storage. Objects up to {@code maxObjectSize} are appended to large pack
+ * files instead of getting a file (and an inode) each; bigger objects are standalone files laid out
+ * exactly like {@link LocalFileSystemStorage}, so an existing local directory can switch to this
+ * backend and keep its files.
+ * <p>
+ * The index (key to pack, offset and length) lives in memory and is persisted as an append-only
+ * journal, replayed at startup; a torn record at its end is dropped. With {@code syncWrites}, the
+ * pack data and then the journal record are forced to disk before a write is acknowledged; without
+ * it, the latest writes may be lost on a power failure (not on a process crash). A delete only drops
+ * the index entry: {@link #compact} copies the live objects out of mostly dead packs and deletes
+ * those, always after forcing the copies and their journal records to disk.
+ * Reads are positional on a shared {@link FileChannel} and take no lock; writes, deletes and
+ * compaction steps are serialized.
+ */
+@Slf4j
+public class PackFileStorage implements StorageService {
+
+    static final String PACK_DIR = ".packs";
+    private static final String JOURNAL = "index.journal";
+    private static final Pattern PACK_NAME = Pattern.compile("pack-(\\d{8})\\.dat");
+    private static final byte PUT = 1;
+    private static final byte DEL = 2;
+
+    private record Entry(int pack, long offset, long length) {}
+
+    private final Path baseDir;
+    private final Path packDir;
+    private final long maxObjectSize;
+    private final long maxPackSize;
+    private final boolean syncWrites;
+    private final LocalFileSystemStorage standalone;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final Map<Integer, Pack> packs = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private FileChannel journal;
+    private Pack active;
+
+    public PackFileStorage(StorageProperties props) {
+        this(new LocalFileSystemStorage(props), Path.of(props.getBaseDir()), props.getPack().getMaxObjectSize().toBytes(),
+                props.getPack().getPackSize().toBytes(), props.getPack().isSyncWrites());
+    }
+
+    public PackFileStorage(Path baseDir, long maxObjectSize, long maxPackSize) {
+        this(new LocalFileSystemStorage(baseDir, new StorageProperties.LocalProperties().getFanOutLevels()),
+                baseDir, maxObjectSize, maxPackSize, true);
+    }
+
+    private PackFileStorage(LocalFileSystemStorage standalone, Path baseDir, long maxObjectSize, long maxPackSize,
+                            boolean syncWrites) {
+        this.standalone = standalone;
+        this.baseDir = baseDir.toAbsolutePath().normalize();
+        this.packDir = this.baseDir.resolve(PACK_DIR);
+        this.maxObjectSize = maxObjectSize;
+        this.maxPackSize = maxPackSize;
+        this.syncWrites = syncWrites;
+        try {
+            Files.createDirectories(packDir);
+            openPacks();
+            replayJournal();
+            journal = openJournal();
+            forceDirectory(packDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot open pack storage in " + packDir, e);
+        }
+        log.info("Pack storage opened: {} objects in {} pack(s)", index.size(), packs.size());
+    }
+
+    /** The storage of the objects too big to be packed. */
+    public LocalFileSystemStorage getStandalone() {
+        return standalone;
+    }
+
+    @Override
+    public String save(InputStream data, long contentLength, String suggestedName) throws IOException {
+        String key = checkKey(suggestedName);
+        if (contentLength < 0 || contentLength > maxObjectSize) {
+            String path = standalone.save(data, contentLength, key);
+            writeLock.lock();
+            try {
+                if (index.remove(key) != null) {
+                    journalDelete(key);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            return path;
+        }
+
+        byte[] bytes = data.readNBytes((int) contentLength);
+        if (bytes.length != contentLength) {
+            throw new IOException("Expected " + contentLength + " bytes for " + key + ", got " + bytes.length);
+        }
+        writeLock.lock();
+        try {
+            Entry entry = append(ByteBuffer.wrap(bytes));
+            if (syncWrites) {
+                // The data must be on disk before a journal record can point to it.
+                active.channel.force(false);
+            }
+            journalPut(key, entry);
+            index.put(key, entry);
+        } finally {
+            writeLock.unlock();
+        }
+        // Saving over a key replaces it, wherever it was.
+        standalone.delete(key);
+        return key;
+    }
+
+    @Override
+    public InputStream read(String storagePath) throws IOException {
+        while (true) {
+            Entry entry = index.get(storagePath);
+            if (entry == null) {
+                return standalone.read(storagePath);
+            }
+            Pack pack = packs.get(entry.pack());
+            if (pack != null && pack.acquire()) {
+                return new PackEntryInputStream(pack, entry.offset(), entry.length());
+            }
+            // The pack was compacted away meanwhile: the index points elsewhere now.
+            if (index.get(storagePath) == entry) {
+                throw new NoSuchFileException(storagePath, null, "pack " + entry.pack() + " is missing");
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(String storagePath) throws IOException {
+        writeLock.lock();
+        try {
+            if (index.remove(storagePath) != null) {
+                journalDelete(storagePath);
+                return true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return standalone.delete(storagePath);
+    }
+
+    @Override
+    public OptionalLong size(String storagePath) throws IOException {
+        Entry entry = index.get(storagePath);
+        return entry != null ? OptionalLong.of(entry.length()) : standalone.size(storagePath);
+    }
+
+    /**
+     * Rewrite every pack (but the one being appended to) in which deleted objects take at least
+     * {@code garbageRatio} of the space: its live objects are copied to the active pack, then the
+     * file is deleted. Ends by rewriting the journal as a snapshot of the index.
+     *
+     * @return packs removed and bytes reclaimed
+     */
+    public Map<String, Object> compact(double garbageRatio) throws IOException {
+        Map<Integer, Long> liveBytes = new HashMap<>();
+        List<Pack> candidates = new ArrayList<>();
+        writeLock.lock();
+        try {
+            index.values().forEach(entry -> liveBytes.merge(entry.pack(), entry.length(), Long::sum));
+            for (Pack pack : packs.values()) {
+                long live = liveBytes.getOrDefault(pack.id, 0L);
+                if (pack != active && pack.size > 0 && pack.size - live >= garbageRatio * pack.size) {
+                    candidates.add(pack);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        long reclaimed = 0;
+        int moved = 0;
+        List<Integer> removed = new ArrayList<>();
+        for (Pack pack : candidates) {
+            List<String> keys = new ArrayList<>();
+            index.forEach((key, entry) -> {
+                if (entry.pack() == pack.id) {
+                    keys.add(key);
+                }
+            });
+            long movedBytes = 0;
+            for (String key : keys) {
+                writeLock.lock();
+                try {
+                    Entry entry = index.get(key);
+                    if (entry != null && entry.pack() == pack.id) {
+                        Entry copy = copy(pack, entry);
+                        journalAppend(record(PUT, key, copy), false);
+                        index.put(key, copy);
+                        movedBytes += copy.length();
+                        moved++;
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+            writeLock.lock();
+            try {
+                // The copies, and the journal records pointing to them, must be on disk before
+                // their only other copy goes.
+                active.channel.force(false);
+                journal.force(false);
+                packs.remove(pack.id);
+                pack.retire();
+                Files.delete(pack.path);
+                reclaimed += pack.size - movedBytes;
+                removed.add(pack.id);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        rewriteJournal();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("packsRemoved", removed.size());
+        result.put("objectsMoved", moved);
+        result.put("bytesReclaimed", reclaimed);
+        return result;
+    }
+
+    public Map<String, Object> metrics() {
+        long packBytes = 0;
+        for (Pack pack : packs.values()) {
+            packBytes += pack.size;
+        }
+        long liveBytes = 0;
+        for (Entry entry : index.values()) {
+            liveBytes += entry.length();
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("packs", packs.size());
+        metrics.put("packedObjects", index.size());
+        metrics.put("packBytes", packBytes);
+        metrics.put("liveBytes", liveBytes);
+        return metrics;
+    }
+
+    private String checkKey(String key) {
+        Path path = baseDir.resolve(key).normalize();
+        if (!path.startsWith(baseDir) || path.startsWith(packDir)) {
+            throw new SecurityException("Invalid path: " + key);
+        }
+        return key;
+    }
+
+    /** Append to the active pack, rolling over to a new one when it is full. Under the write lock. */
+    private Entry append(ByteBuffer bytes) throws IOException {
+        long length = bytes.remaining();
+        rollIfFull(length);
+        long offset = active.size;
+        while (bytes.hasRemaining()) {
+            active.channel.write(bytes, offset + (length - bytes.remaining()));
+        }
+        active.size += length;
+        return new Entry(active.id, offset, length);
+    }
+
+    private Entry copy(Pack from, Entry entry) throws IOException {
+        rollIfFull(entry.length());
+        long offset = active.size;
+        long copied = 0;
+        while (copied < entry.length()) {
+            active.channel.position(offset + copied);
+            copied += from.channel.transferTo(entry.offset() + copied, entry.length() - copied, active.channel);
+        }
+        active.size += entry.length();
+        return new Entry(active.id, offset, entry.length());
+    }
+
+    private void rollIfFull(long length) throws IOException {
+        if (active.size > 0 && active.size + length > maxPackSize) {
+            active.channel.force(false);
+            int id = active.id + 1;
+            active = openPack(id);
+            packs.put(id, active);
+            // Journal records are about to point into the new file.
+            forceDirectory(packDir);
+        }
+    }
+
+    private void openPacks() throws IOException {
+        int last = 0;
+        try (Stream<Path> files = Files.list(packDir)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = PACK_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    int id = Integer.parseInt(matcher.group(1));
+                    packs.put(id, openPack(id));
+                    last = Math.max(last, id);
+                }
+            }
+        }
+        if (packs.isEmpty()) {
+            last = 1;
+            packs.put(last, openPack(last));
+        }
+        active = packs.get(last);
+    }
+
+    private Pack openPack(int id) throws IOException {
+        Path path = packDir.resolve(String.format("pack-%08d.dat", id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new Pack(id, path, channel, channel.size());
+    }
+
+    private void replayJournal() throws IOException {
+        Path path = packDir.resolve(JOURNAL);
+        if (!Files.exists(path)) {
+            return;
+        }
+        long valid = 0;
+        int dropped = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    byte[] keyBytes = new byte[in.readInt()];
+                    in.readFully(keyBytes);
+                    String key = new String(keyBytes, StandardCharsets.UTF_8);
+                    long recordLength = 1 + 4 + keyBytes.length;
+                    if (op == PUT) {
+                        Entry entry = new Entry(in.readInt(), in.readLong(), in.readLong());
+                        recordLength += 4 + 8 + 8;
+                        Pack pack = packs.get(entry.pack());
+                        if (pack != null && entry.offset() + entry.length() <= pack.size) {
+                            index.put(key, entry);
+                        } else {
+                            // Its data never fully reached the pack.
+                            index.remove(key);
+                            dropped++;
+                        }
+                    } else if (op == DEL) {
+                        index.remove(key);
+                    } else {
+                        throw new IOException("Corrupt pack journal record at " + valid);
+                    }
+                    valid += recordLength;
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        if (valid < Files.size(path)) {
+            log.warn("Pack journal ends with a torn record, truncating at {} bytes", valid);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Dropped {} pack index entries whose data is missing", dropped);
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(packDir.resolve(JOURNAL), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void journalPut(String key, Entry entry) throws IOException {
+        journalAppend(record(PUT, key, entry), syncWrites);
+    }
+
+    private void journalDelete(String key) throws IOException {
+        journalAppend(record(DEL, key, null), syncWrites);
+    }
+
+    /** Append one record to the journal, forcing it to disk if asked. Under the write lock. */
+    private void journalAppend(ByteBuffer record, boolean force) throws IOException {
+        while (record.hasRemaining()) {
+            journal.write(record);
+        }
+        if (force) {
+            journal.force(false);
+        }
+    }
+
+    private static ByteBuffer record(byte op, String key, Entry entry) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + keyBytes.length + (op == PUT ? 4 + 8 + 8 : 0));
+        record.put(op).putInt(keyBytes.length).put(keyBytes);
+        if (op == PUT) {
+            record.putInt(entry.pack()).putLong(entry.offset()).putLong(entry.length());
+        }
+        return record.flip();
+    }
+
+    /** Replace the journal by one PUT per live object, so that it does not grow forever. */
+    private void rewriteJournal() throws IOException {
+        writeLock.lock();
+        try {
+            Path path = packDir.resolve(JOURNAL);
+            Path tmp = packDir.resolve(JOURNAL + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                for (Map.Entry<String, Entry> entry : index.entrySet()) {
+                    out.write(record(PUT, entry.getKey(), entry.getValue()).array());
+                }
+                out.flush();
+                channel.force(true);
+            }
+            journal.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(packDir);
+            journal = openJournal();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Make a rename in {@code dir} durable; not every platform can open a directory. */
+    private static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot sync directory {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * An open pack file. Readers hold a reference while they stream; a pack retired by compaction
+     * is closed once the last one is done ({@code refs} is -1 once closed).
+     */
+    private static final class Pack {
+
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        /** Bytes written, only changed under the write lock. */
+        volatile long size;
+        final AtomicInteger refs = new AtomicInteger();
+        volatile boolean retired;
+
+        Pack(int id, Path path, FileChannel channel, long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        boolean acquire() {
+            while (true) {
+                int current = refs.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (refs.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0 && retired) {
+                closeIfUnused();
+            }
+        }
+
+        void retire() {
+            retired = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if (refs.compareAndSet(0, -1)) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Could not close retired pack {}: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** One object of a pack, read with positional reads so that streams never share a position. */
+    private static final class PackEntryInputStream extends InputStream {
+
+        private final Pack pack;
+        private long position;
+        private long remaining;
+        private boolean closed;
+
+        PackEntryInputStream(Pack pack, long offset, long length) {
+            this.pack = pack;
+            this.position = offset;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (remaining == 0) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            ByteBuffer target = ByteBuffer.wrap(buffer, offset, (int) Math.min(length, remaining));
+            int read = pack.channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("Pack " + pack.path + " is shorter than its index");
+            }
+            position += read;
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, remaining));
+            position += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                pack.release();
+            }
+        }
+    }
+}
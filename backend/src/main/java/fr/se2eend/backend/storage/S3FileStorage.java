@@ -11,66 +11,134 @@ import software.amazon.awssdk.services.s3.model.*;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.OptionalLong;
 
 /**
  * S3-compatible implementation of StorageService.
  * Works with AWS S3 and any S3-compatible storage (e.g. MinIO, Scaleway, OVHcloud).
+ * <p>
+ * Objects can be spread over several buckets, possibly on different endpoints (see
+ * {@link StorageProperties.S3Properties#getTargets()}); {@link S3Placement} picks the bucket and
+ * encodes it in the returned storage path, so reads go straight to the right one.
  */
 public class S3FileStorage implements StorageService {
 
-    private final S3Client s3Client;
-    private final String bucket;
+    private record Target(S3Client client, String bucket) {}
+
+    private final Map<String, Target> targets = new HashMap<>();
+    private final S3Placement placement;
 
     public S3FileStorage(StorageProperties props) {
         StorageProperties.S3Properties s3Props = props.getS3();
+        // Targets sharing an endpoint and credentials share a client (and its connection pool).
+        Map<List<Object>, S3Client> clients = new HashMap<>();
+        List<String> writable = new ArrayList<>();
 
-        S3ClientBuilder builder = S3Client.builder()
-                .region(Region.of(s3Props.getRegion()))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(s3Props.getAccessKey(), s3Props.getSecretKey())
-                ));
-
-        if (s3Props.getEndpoint() != null && !s3Props.getEndpoint().isBlank()) {
-            builder.endpointOverride(URI.create(s3Props.getEndpoint()));
+        if (s3Props.getBucket() != null && !s3Props.getBucket().isBlank()) {
+            targets.put(S3Placement.DEFAULT_TARGET, new Target(
+                    client(clients, s3Props.getEndpoint(), s3Props.getRegion(), s3Props.getAccessKey(),
+                            s3Props.getSecretKey(), s3Props.isPathStyleAccess()),
+                    s3Props.getBucket()));
+            if (s3Props.getTargets().isEmpty()) {
+                writable.add(S3Placement.DEFAULT_TARGET);
+            }
         }
-
-        if (s3Props.isPathStyleAccess()) {
-            builder.forcePathStyle(true);
+        for (StorageProperties.S3Target t : s3Props.getTargets()) {
+            S3Placement.checkName(t.getName());
+            if (t.getBucket() == null || t.getBucket().isBlank()) {
+                throw new IllegalArgumentException("S3 target " + t.getName() + " has no bucket");
+            }
+            S3Client client = client(clients,
+                    t.getEndpoint() != null ? t.getEndpoint() : s3Props.getEndpoint(),
+                    t.getRegion() != null ? t.getRegion() : s3Props.getRegion(),
+                    t.getAccessKey() != null ? t.getAccessKey() : s3Props.getAccessKey(),
+                    t.getSecretKey() != null ? t.getSecretKey() : s3Props.getSecretKey(),
+                    t.getPathStyleAccess() != null ? t.getPathStyleAccess() : s3Props.isPathStyleAccess());
+            if (targets.putIfAbsent(t.getName(), new Target(client, t.getBucket())) != null) {
+                throw new IllegalArgumentException("Duplicate S3 target name: " + t.getName());
+            }
+            if (!t.isReadOnly()) {
+                writable.add(t.getName());
+            }
         }
 
-        this.s3Client = builder.build();
-        this.bucket = s3Props.getBucket();
+        this.placement = new S3Placement(writable, s3Props.getHashPrefixLength());
+    }
+
+    private static S3Client client(Map<List<Object>, S3Client> clients, String endpoint, String region,
+                                   String accessKey, String secretKey, boolean pathStyleAccess) {
+        List<Object> settings = new ArrayList<>();
+        settings.add(endpoint);
+        settings.add(region);
+        settings.add(accessKey);
+        settings.add(secretKey);
+        settings.add(pathStyleAccess);
+        return clients.computeIfAbsent(settings, k -> {
+            S3ClientBuilder builder = S3Client.builder()
+                    .region(Region.of(region))
+                    .credentialsProvider(StaticCredentialsProvider.create(
+                            AwsBasicCredentials.create(accessKey, secretKey)
+                    ));
+
+            if (endpoint != null && !endpoint.isBlank()) {
+                builder.endpointOverride(URI.create(endpoint));
+            }
+
+            if (pathStyleAccess) {
+                builder.forcePathStyle(true);
+            }
+
+            return builder.build();
+        });
+    }
+
+    private Target target(S3Placement.Location location) throws IOException {
+        Target target = targets.get(location.target());
+        if (target == null) {
+            throw new IOException("Unknown S3 target: " + location.target());
+        }
+        return target;
     }
 
     @Override
     public String save(InputStream data, long contentLength, String suggestedName) throws IOException {
+        String storagePath = placement.place(suggestedName);
+        S3Placement.Location location = placement.locate(storagePath);
+        Target target = target(location);
         PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucket)
-                .key(suggestedName)
+                .bucket(target.bucket())
+                .key(location.key())
                 .contentLength(contentLength)
                 .build();
 
-        s3Client.putObject(request, RequestBody.fromInputStream(data, contentLength));
-        return suggestedName;
+        target.client().putObject(request, RequestBody.fromInputStream(data, contentLength));
+        return storagePath;
     }
 
     @Override
-    public InputStream read(String storagePath) {
+    public InputStream read(String storagePath) throws IOException {
+        S3Placement.Location location = placement.locate(storagePath);
+        Target target = target(location);
         GetObjectRequest request = GetObjectRequest.builder()
-                .bucket(bucket)
-                .key(storagePath)
+                .bucket(target.bucket())
+                .key(location.key())
                 .build();
 
-        return s3Client.getObject(request);
+        return target.client().getObject(request);
     }
 
     @Override
     public boolean delete(String storagePath) throws IOException {
+        S3Placement.Location location = placement.locate(storagePath);
+        Target target = target(location);
         try {
-            s3Client.deleteObject(DeleteObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(storagePath)
+            target.client().deleteObject(DeleteObjectRequest.builder()
+                    .bucket(target.bucket())
+                    .key(location.key())
                     .build());
             return true;
         } catch (S3Exception e) {
@@ -79,11 +147,13 @@ public class S3FileStorage implements StorageService {
     }
 
     @Override
-    public OptionalLong size(String storagePath) {
+    public OptionalLong size(String storagePath) throws IOException {
+        S3Placement.Location location = placement.locate(storagePath);
+        Target target = target(location);
         try {
-            HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(storagePath)
+            HeadObjectResponse response = target.client().headObject(HeadObjectRequest.builder()
+                    .bucket(target.bucket())
+                    .key(location.key())
                     .build());
             return response.contentLength() != null
                     ? OptionalLong.of(response.contentLength())
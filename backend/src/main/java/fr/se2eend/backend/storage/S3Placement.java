@@ -0,0 +1,87 @@
+package fr.se2eend.backend.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Where {@link S3FileStorage} puts an object, and how it finds it again from the storage path alone.
+ * <p>
+ * A new object goes to one of the writable targets, picked by rendezvous hashing of its key (adding
+ * a target only moves the placement of about 1/n of the new keys, and nothing already written), and
+ * its key gets a short hash prefix so that requests spread over many S3 partitions instead of all
+ * hitting {@code chunks/}. The returned storage path is {@code <target>:<object key>}; a path without
+ * a target, written before placement existed, is an object key in the {@value #DEFAULT_TARGET} target.
+ */
+public final class S3Placement {
+
+    /** The bucket configured directly under {@code storage.s3}. */
+    public static final String DEFAULT_TARGET = "default";
+
+    private static final Pattern TARGET_NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    public record Location(String target, String key) {}
+
+    private final List<String> writableTargets;
+    private final int hashPrefixLength;
+
+    public S3Placement(List<String> writableTargets, int hashPrefixLength) {
+        if (writableTargets.isEmpty()) {
+            throw new IllegalArgumentException("At least one S3 target must accept writes");
+        }
+        for (String name : writableTargets) {
+            checkName(name);
+        }
+        if (hashPrefixLength < 0 || hashPrefixLength > 16) {
+            throw new IllegalArgumentException("storage.s3.hash-prefix-length must be between 0 and 16");
+        }
+        this.writableTargets = List.copyOf(writableTargets);
+        this.hashPrefixLength = hashPrefixLength;
+    }
+
+    static void checkName(String name) {
+        if (name == null || !TARGET_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid S3 target name: " + name);
+        }
+    }
+
+    /** Storage path for a new object saved under {@code key}. */
+    public String place(String key) {
+        String target = writableTargets.get(0);
+        long best = Long.MIN_VALUE;
+        for (String candidate : writableTargets) {
+            // Unsigned comparison, so that every bit of the hash counts.
+            long score = hash(candidate + '/' + key) ^ Long.MIN_VALUE;
+            if (score > best) {
+                best = score;
+                target = candidate;
+            }
+        }
+        String objectKey = hashPrefixLength == 0 ? key
+                : HexFormat.of().toHexDigits(hash(key)).substring(0, hashPrefixLength) + '/' + key;
+        return target + ':' + objectKey;
+    }
+
+    /** Target and object key of a storage path returned by {@link #place} (or of a legacy key). */
+    public Location locate(String storagePath) {
+        int colon = storagePath.indexOf(':');
+        int slash = storagePath.indexOf('/');
+        if (colon <= 0 || (slash >= 0 && slash < colon)) {
+            return new Location(DEFAULT_TARGET, storagePath);
+        }
+        return new Location(storagePath.substring(0, colon), storagePath.substring(colon + 1));
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package fr.se2eend.backend.storage;
+
+import fr.se2eend.backend.exception.StorageBusyException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Local staging tier in front of a slower backend (typically S3). Objects are written to a local
+ * directory and acknowledged at once; their storage path is {@code staging:<key>}. Chunks are
+ * assembled there too, and the resulting file is later copied to the backend by {@link #promote},
+ * after which the caller repoints the file to the returned path and the staged copy is swept.
+ * Paths without the prefix belong to the backend.
+ * <p>
+ * Staged bytes are capped at {@code maxBytes}: a chunk that does not fit is rejected with
+ * {@link StorageBusyException} so the client retries later, while other objects (an assembled file,
+ * a small direct upload) go straight to the backend instead. The count includes the writes in
+ * flight; {@link #recount} rebuilds it from the directory, without the files still being written.
+ */
+public class StagingStorage implements StorageService {
+
+    public static final String PREFIX = "staging:";
+    private static final String CHUNKS = "chunks/";
+
+    private final StorageService backend;
+    private final LocalFileSystemStorage staging;
+    private final Path stagingDir;
+    private final long maxBytes;
+    /** Staged bytes, counting the in-flight writes at their full length. */
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    /** Shared by every count update, exclusive for {@link #recount}. */
+    private final ReadWriteLock accounting = new ReentrantReadWriteLock();
+
+    public StagingStorage(StorageService backend, StorageProperties props) {
+        this(backend, Path.of(props.getStaging().getDir()), props.getStaging().getMaxSize().toBytes());
+    }
+
+    public StagingStorage(StorageService backend, Path stagingDir, long maxBytes) {
+        this.backend = backend;
+        this.stagingDir = stagingDir.toAbsolutePath().normalize();
+        this.staging = new LocalFileSystemStorage(this.stagingDir, 0);
+        this.maxBytes = maxBytes;
+        try {
+            recount();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read staging directory: " + this.stagingDir, e);
+        }
+    }
+
+    public static boolean isStaged(String storagePath) {
+        return storagePath != null && storagePath.startsWith(PREFIX);
+    }
+
+    public StorageService getBackend() {
+        return backend;
+    }
+
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String save(InputStream data, long contentLength, String suggestedName) throws IOException {
+        String key = inFlightKey(suggestedName);
+        if (contentLength < 0 || !reserve(key, contentLength)) {
+            if (suggestedName.startsWith(CHUNKS)) {
+                throw new StorageBusyException("Upload staging area is full, retry later");
+            }
+            return backend.save(data, contentLength, suggestedName);
+        }
+        boolean written = false;
+        try {
+            String path = PREFIX + staging.save(data, contentLength, suggestedName);
+            written = true;
+            return path;
+        } finally {
+            release(key, contentLength, written);
+        }
+    }
+
+    @Override
+    public InputStream read(String storagePath) throws IOException {
+        return isStaged(storagePath) ? staging.read(key(storagePath)) : backend.read(storagePath);
+    }
+
+    @Override
+    public boolean delete(String storagePath) throws IOException {
+        if (!isStaged(storagePath)) {
+            return backend.delete(storagePath);
+        }
+        String key = key(storagePath);
+        accounting.readLock().lock();
+        try {
+            long size;
+            try {
+                size = staging.size(key).orElse(0);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            boolean deleted = staging.delete(key);
+            if (deleted) {
+                usedBytes.addAndGet(-size);
+            }
+            return deleted;
+        } finally {
+            accounting.readLock().unlock();
+        }
+    }
+
+    @Override
+    public OptionalLong size(String storagePath) throws IOException {
+        return isStaged(storagePath) ? staging.size(key(storagePath)) : backend.size(storagePath);
+    }
+
+    /**
+     * Assemble staged chunks into a staged file when there is room for it, so that completing an
+     * upload costs a local copy; otherwise stream them to the backend.
+     */
+    @Override
+    public String concatenate(List<String> sourcePaths, long totalSize, String suggestedName) throws IOException {
+        String key = inFlightKey(suggestedName);
+        if (!sourcePaths.stream().allMatch(StagingStorage::isStaged) || !reserve(key, totalSize)) {
+            return StorageService.super.concatenate(sourcePaths, totalSize, suggestedName);
+        }
+        boolean written = false;
+        try {
+            List<String> keys = sourcePaths.stream().map(StagingStorage::key).toList();
+            String path = PREFIX + staging.concatenate(keys, totalSize, suggestedName);
+            written = true;
+            return path;
+        } finally {
+            release(key, totalSize, written);
+        }
+    }
+
+    /**
+     * Copy a staged object to the backend and return its backend path. The staged copy stays, with
+     * its modification time reset, until {@link #sweep} finds it unreferenced.
+     */
+    public String promote(String storagePath) throws IOException {
+        String key = key(storagePath);
+        long size = staging.size(key).orElseThrow();
+        String promoted;
+        try (InputStream in = staging.read(key)) {
+            promoted = backend.save(in, size, key);
+        }
+        try {
+            Files.setLastModifiedTime(stagingDir.resolve(key), FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            // Deleted meanwhile: the caller finds the file row gone as well.
+        }
+        return promoted;
+    }
+
+    /**
+     * Delete the staged files (not chunks) older than {@code minAge} that {@code referenced} does not
+     * claim.
+     *
+     * @return the number of files deleted
+     */
+    public int sweep(Duration minAge, Predicate<String> referenced) throws IOException {
+        Instant cutoff = Instant.now().minus(minAge);
+        List<String> candidates = new ArrayList<>();
+        try (var entries = Files.newDirectoryStream(stagingDir, Files::isRegularFile)) {
+            for (Path entry : entries) {
+                if (!Files.getLastModifiedTime(entry).toInstant().isAfter(cutoff)) {
+                    candidates.add(PREFIX + entry.getFileName());
+                }
+            }
+        }
+        int deleted = 0;
+        for (String candidate : candidates) {
+            if (!referenced.test(candidate) && delete(candidate)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Rebuild the staged byte count from the directory, which other instances sharing it change
+     * behind this one's back. The files this instance is still writing are counted at their
+     * reserved length instead; count updates wait for the walk.
+     */
+    public void recount() throws IOException {
+        accounting.writeLock().lock();
+        try {
+            AtomicLong total = new AtomicLong();
+            Files.walkFileTree(stagingDir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!inFlight.contains(stagingDir.relativize(file).toString())) {
+                        total.addAndGet(attrs.size());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    // Deleted while walking.
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            usedBytes.set(total.get() + inFlightBytes.get());
+        } finally {
+            accounting.writeLock().unlock();
+        }
+    }
+
+    private boolean reserve(String key, long bytes) {
+        accounting.readLock().lock();
+        try {
+            long used;
+            do {
+                used = usedBytes.get();
+                if (used + bytes > maxBytes) {
+                    return false;
+                }
+            } while (!usedBytes.compareAndSet(used, used + bytes));
+            inFlightBytes.addAndGet(bytes);
+            inFlight.add(key);
+            return true;
+        } finally {
+            accounting.readLock().unlock();
+        }
+    }
+
+    /** End an in-flight write; the reservation becomes staged bytes if the file was written. */
+    private void release(String key, long bytes, boolean written) {
+        accounting.readLock().lock();
+        try {
+            inFlight.remove(key);
+            inFlightBytes.addAndGet(-bytes);
+            if (!written) {
+                usedBytes.addAndGet(-bytes);
+            }
+        } finally {
+            accounting.readLock().unlock();
+        }
+    }
+
+    private static String inFlightKey(String suggestedName) {
+        return Path.of(suggestedName).normalize().toString();
+    }
+
+    private static String key(String storagePath) {
+        return storagePath.substring(PREFIX.length());
+    }
+}
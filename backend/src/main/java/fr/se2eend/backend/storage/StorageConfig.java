@@ -6,19 +6,28 @@ import org.springframework.context.annotation.Configuration;
 /**
  * Storage configuration selector.
  * Chooses which StorageService implementation to instantiate
- * based on the configured provider in application.yml.
+ * based on the configured provider in application.yml, wrapped so that
+ * every storage call shows up in JFR recordings. With {@code storage.staging.enabled}, the provider
+ * sits behind a local {@link StagingStorage} tier.
  */
 @Configuration
 public class StorageConfig {
 
     @Bean
     public StorageService storageService(StorageProperties properties) {
-        return switch (properties.getProvider().toLowerCase()) {
+        String provider = properties.getProvider().toLowerCase();
+        StorageService backend = switch (provider) {
             case "local" -> new LocalFileSystemStorage(properties);
+            case "pack" -> new PackFileStorage(properties);
             case "s3" -> new S3FileStorage(properties);
             default -> throw new IllegalArgumentException(
                     "Unsupported storage provider: " + properties.getProvider()
             );
         };
+        if (properties.getStaging().isEnabled()) {
+            backend = new StagingStorage(backend, properties);
+            provider = "staging+" + provider;
+        }
+        return new InstrumentedStorageService(backend, provider);
     }
 }
@@ -0,0 +1,31 @@
+package fr.se2eend.backend.storage;
+
+import java.util.Optional;
+
+/**
+ * Finds a provider behind the wrappers {@link StorageConfig} puts around it: the JFR
+ * instrumentation, then the optional staging tier.
+ */
+public final class StorageLayers {
+
+    private StorageLayers() {
+    }
+
+    /** The first layer of {@code storage}, outermost first, that is a {@code type}. */
+    public static <T extends StorageService> Optional<T> find(StorageService storage, Class<T> type) {
+        StorageService layer = storage;
+        while (layer != null) {
+            if (type.isInstance(layer)) {
+                return Optional.of(type.cast(layer));
+            }
+            if (layer instanceof InstrumentedStorageService instrumented) {
+                layer = instrumented.getDelegate();
+            } else if (layer instanceof StagingStorage staging) {
+                layer = staging.getBackend();
+            } else {
+                layer = null;
+            }
+        }
+        return Optional.empty();
+    }
+}
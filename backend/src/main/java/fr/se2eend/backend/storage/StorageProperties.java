@@ -4,6 +4,11 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration properties for the file storage system.
@@ -19,7 +24,7 @@ import org.springframework.context.annotation.Configuration;
 public class StorageProperties {
 
     /**
-     * Provider type (local, s3, ...).
+     * Provider type (local, pack, s3, ...).
      * Defines which StorageService implementation to use.
      */
     private String provider = "local";
@@ -30,8 +35,74 @@ public class StorageProperties {
      */
     private String baseDir = "./uploads";
 
+    private LocalProperties local = new LocalProperties();
+
     private S3Properties s3 = new S3Properties();
 
+    private PackProperties pack = new PackProperties();
+
+    private StagingProperties staging = new StagingProperties();
+
+    /**
+     * Local staging tier in front of the provider (see {@link StagingStorage}).
+     */
+    @Getter
+    @Setter
+    public static class StagingProperties {
+
+        /** Write uploads to {@link #dir} first and copy finished files to the provider in the background. */
+        private boolean enabled = false;
+
+        /** Staging directory; must be shared by all instances. */
+        private String dir = "./staging";
+
+        /** Staged bytes above which new chunks are refused with 503 until promotion frees space. */
+        private DataSize maxSize = DataSize.ofGigabytes(10);
+
+        /** Files copied to the provider at the same time. */
+        private int promotionConcurrency = 4;
+
+        /**
+         * How long a promoted file stays in staging for downloads that already resolved it; at least
+         * {@code cache.sends.ttl}, since cached sends keep the staged path until they expire.
+         */
+        private Duration retainAfterPromotion = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Directory layout of the {@code local} provider (and of the standalone files of {@code pack}).
+     */
+    @Getter
+    @Setter
+    public static class LocalProperties {
+
+        /** Levels of two-hex-digit hash directories above each object; 0 keeps a flat directory. */
+        private int fanOutLevels = 2;
+    }
+
+    /**
+     * Settings of the {@code pack} provider (see {@link PackFileStorage}).
+     */
+    @Getter
+    @Setter
+    public static class PackProperties {
+
+        /** Objects up to this size are appended to pack files; bigger ones are standalone files. */
+        private DataSize maxObjectSize = DataSize.ofMegabytes(1);
+
+        /** A pack file is closed and a new one started once it reaches this size. */
+        private DataSize packSize = DataSize.ofMegabytes(256);
+
+        /** Share of deleted bytes from which compaction rewrites a pack. */
+        private double compactionGarbageRatio = 0.5;
+
+        /**
+         * Force pack data and the journal to disk before acknowledging a write. Turning it off trades
+         * durability of the latest writes on power loss for throughput.
+         */
+        private boolean syncWrites = true;
+    }
+
     @Getter
     @Setter
     public static class S3Properties {
@@ -59,6 +130,41 @@ public class StorageProperties {
          * Defaults to false (virtual-hosted style, recommended for AWS S3).
          */
         private boolean pathStyleAccess = false;
+
+        /**
+         * Additional buckets to spread objects over. When set, new objects go to these targets only
+         * (the bucket above stays readable as {@code default}); unset fields are taken from above.
+         */
+        private List<S3Target> targets = new ArrayList<>();
+
+        /** Hex characters of key hash prepended to new object keys, to spread S3 partitions (0 disables). */
+        private int hashPrefixLength = 4;
+    }
+
+    /**
+     * One bucket of a multi-bucket S3 setup. The name is written into storage paths and must not
+     * change once objects were stored.
+     */
+    @Getter
+    @Setter
+    public static class S3Target {
+
+        private String name;
+
+        private String bucket;
+
+        private String endpoint;
+
+        private String region;
+
+        private String accessKey;
+
+        private String secretKey;
+
+        private Boolean pathStyleAccess;
+
+        /** Keep serving the objects already in this bucket, but place no new ones there. */
+        private boolean readOnly = false;
     }
 
     @Override
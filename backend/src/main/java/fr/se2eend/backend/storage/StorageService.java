@@ -2,6 +2,10 @@ package fr.se2eend.backend.storage;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.OptionalLong;
 
 public interface StorageService {
@@ -13,5 +17,27 @@ public interface StorageService {
     boolean delete(String storagePath) throws IOException;
 
     OptionalLong size(String storagePath) throws IOException;
-}
 
+    /**
+     * Store the concatenation of the given objects, in order, as a new object (used to assemble
+     * upload chunks). The sources are left in place. By default the sources are streamed back
+     * through {@link #save}; backends may override with a cheaper server-side copy.
+     */
+    default String concatenate(List<String> sourcePaths, long totalSize, String suggestedName) throws IOException {
+        List<InputStream> streams = new ArrayList<>(sourcePaths.size());
+        try {
+            for (String sourcePath : sourcePaths) {
+                streams.add(read(sourcePath));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+            throw e;
+        }
+
+        try (InputStream combined = new SequenceInputStream(Collections.enumeration(streams))) {
+            return save(combined, totalSize, suggestedName);
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Optimistic-lock version.
+ALTER TABLE instance_settings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
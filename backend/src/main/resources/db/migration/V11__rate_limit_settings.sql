@@ -0,0 +1,6 @@
+-- Public endpoint rate limits, in requests per minute. Set to 0 to disable a limit.
+INSERT INTO instance_settings (key, value) VALUES
+    ('rate_limit_send_lookup_per_minute', '120'),  -- per client, GET /api/v1/sends/{accessId}
+    ('rate_limit_download_per_minute', '30'),      -- per client, GET /api/v1/sends/{accessId}/download
+    ('rate_limit_access_id_per_minute', '300'),    -- per client and send
+    ('rate_limit_password_per_minute', '20');      -- per send, downloads carrying a password
@@ -0,0 +1,21 @@
+-- Admin send listing: keyset pagination on (created_at, id), owner search, status filters.
+
+-- Keyset order, newest first; also serves the unfiltered listing.
+CREATE INDEX idx_sends_created_at_id ON sends (created_at DESC, id DESC);
+
+-- Owner search is a substring match (lower(col) LIKE '%x%'), which only trigram indexes can serve.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_sends_owner_email_trgm ON sends USING gin (lower(owner_email) gin_trgm_ops);
+CREATE INDEX idx_sends_owner_name_trgm ON sends USING gin (lower(owner_name) gin_trgm_ops);
+
+-- One partial index per SendSpecifications.withStatus predicate, in keyset order. The conditions
+-- must stay implied by the generated WHERE clause for the planner to pick them.
+CREATE INDEX idx_sends_status_active ON sends (created_at DESC, id DESC)
+    WHERE revoked = false AND download_count < max_downloads;
+CREATE INDEX idx_sends_status_exhausted ON sends (created_at DESC, id DESC)
+    WHERE revoked = false AND download_count >= max_downloads;
+CREATE INDEX idx_sends_status_revoked ON sends (created_at DESC, id DESC)
+    WHERE revoked = true;
+-- Expired sends are few (cleanup removes them), so look them up by expiry; also used by cleanup.
+CREATE INDEX idx_sends_status_expired ON sends (expires_at)
+    WHERE revoked = false AND expires_at IS NOT NULL;
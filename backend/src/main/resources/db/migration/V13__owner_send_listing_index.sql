@@ -0,0 +1,2 @@
+-- Owner send listing (GET /api/v1/sends): keyset pagination on (created_at, id) within an owner.
+CREATE INDEX idx_sends_owner_created_at_id ON sends (owner_id, created_at DESC, id DESC);
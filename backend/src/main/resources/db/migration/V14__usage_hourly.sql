@@ -0,0 +1,14 @@
+-- Hourly usage rollup, filled by the in-process usage aggregator (one flush per instance per minute).
+CREATE TABLE usage_hourly (
+    hour_start        TIMESTAMP NOT NULL PRIMARY KEY,
+    sends_created     BIGINT    NOT NULL DEFAULT 0,
+    uploads_completed BIGINT    NOT NULL DEFAULT 0,
+    bytes_in          BIGINT    NOT NULL DEFAULT 0,
+    downloads         BIGINT    NOT NULL DEFAULT 0,
+    bytes_out         BIGINT    NOT NULL DEFAULT 0,
+    deleted_expired   BIGINT    NOT NULL DEFAULT 0,
+    deleted_revoked   BIGINT    NOT NULL DEFAULT 0,
+    deleted_exhausted BIGINT    NOT NULL DEFAULT 0,
+    deleted_manual    BIGINT    NOT NULL DEFAULT 0,
+    deleted_user      BIGINT    NOT NULL DEFAULT 0
+);
@@ -0,0 +1,52 @@
+-- deleted_sends becomes range-partitioned by month on deleted_at, so that retention drops whole
+-- partitions and date-range queries only visit the months they ask for. Monthly partitions are
+-- named deleted_sends_pYYYYMM; DeletedSendPartitionService creates them ahead of time and drops
+-- them past audit_retention_months. The default partition only catches rows outside every month.
+
+ALTER TABLE deleted_sends RENAME TO deleted_sends_unpartitioned;
+
+-- The primary key of a partitioned table must include the partition key.
+CREATE TABLE deleted_sends (
+    id               UUID         NOT NULL DEFAULT gen_random_uuid(),
+    original_send_id UUID         NOT NULL,
+    access_id        VARCHAR(22),
+    owner_id         UUID,
+    owner_name       VARCHAR(255),
+    owner_email      VARCHAR(255),
+    send_created_at  TIMESTAMP,
+    deleted_at       TIMESTAMP    NOT NULL,
+    delete_reason    VARCHAR(50)  NOT NULL,
+    file_count       INTEGER      NOT NULL DEFAULT 0,
+    total_size_bytes BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, deleted_at)
+) PARTITION BY RANGE (deleted_at);
+
+CREATE TABLE deleted_sends_default PARTITION OF deleted_sends DEFAULT;
+
+-- One partition per month from the oldest existing row to three months ahead.
+DO $$
+DECLARE
+    m TIMESTAMP := date_trunc('month', COALESCE((SELECT min(deleted_at) FROM deleted_sends_unpartitioned), LOCALTIMESTAMP));
+BEGIN
+    WHILE m <= date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF deleted_sends FOR VALUES FROM (%L) TO (%L)',
+                       'deleted_sends_p' || to_char(m, 'YYYYMM'), m, m + INTERVAL '1 month');
+        m := m + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO deleted_sends (id, original_send_id, access_id, owner_id, owner_name, owner_email,
+                           send_created_at, deleted_at, delete_reason, file_count, total_size_bytes)
+SELECT id, original_send_id, access_id, owner_id, owner_name, owner_email,
+       send_created_at, deleted_at, delete_reason, file_count, total_size_bytes
+FROM deleted_sends_unpartitioned;
+
+DROP TABLE deleted_sends_unpartitioned;
+
+-- Created on the parent, so every partition (present and future) gets them.
+CREATE INDEX idx_deleted_sends_deleted_at ON deleted_sends (deleted_at DESC);
+CREATE INDEX idx_deleted_sends_owner ON deleted_sends (owner_id, deleted_at DESC);
+CREATE INDEX idx_deleted_sends_reason ON deleted_sends (delete_reason, deleted_at DESC);
+
+-- Months of audit log to keep; 0 keeps everything.
+INSERT INTO instance_settings (key, value) VALUES ('audit_retention_months', '0');
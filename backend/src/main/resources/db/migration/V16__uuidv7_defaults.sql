@@ -0,0 +1,9 @@
+-- Keys generated by the application are time-ordered UUIDv7 (Hibernate @UuidGenerator VERSION_7),
+-- so inserts append to the right edge of each primary key index instead of touching a random
+-- page. Give rows inserted directly in SQL the same kind of key (uuidv7() is PostgreSQL 18+).
+-- Existing keys are left as they are.
+ALTER TABLE sends           ALTER COLUMN id SET DEFAULT uuidv7();
+ALTER TABLE files           ALTER COLUMN id SET DEFAULT uuidv7();
+ALTER TABLE upload_sessions ALTER COLUMN id SET DEFAULT uuidv7();
+ALTER TABLE upload_chunks   ALTER COLUMN id SET DEFAULT uuidv7();
+ALTER TABLE deleted_sends   ALTER COLUMN id SET DEFAULT uuidv7();
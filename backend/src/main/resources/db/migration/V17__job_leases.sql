@@ -0,0 +1,8 @@
+-- One row per periodic job (or job shard): the instance running it, until when. An expired lease
+-- can be taken over by any instance, so a job is not stuck when its holder dies.
+CREATE TABLE job_leases (
+    name        VARCHAR(100) NOT NULL PRIMARY KEY,
+    holder      VARCHAR(255) NOT NULL,
+    acquired_at TIMESTAMP    NOT NULL,
+    expires_at  TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,6 @@
+-- Payloads under storage.inline-threshold (typically TEXT sends) are kept in the row instead of
+-- object storage; such files have no storage path.
+ALTER TABLE files ADD COLUMN inline_content BYTEA;
+ALTER TABLE files ALTER COLUMN storage_path DROP NOT NULL;
+ALTER TABLE files ADD CONSTRAINT files_content_location
+    CHECK ((storage_path IS NULL) <> (inline_content IS NULL));
@@ -0,0 +1,3 @@
+-- Files still in the local staging tier (storage.staging), polled by the promotion job. The index
+-- only holds those rows, so it stays tiny and the poll does not scan the table.
+CREATE INDEX idx_files_staged ON files (id) WHERE storage_path LIKE 'staging:%';
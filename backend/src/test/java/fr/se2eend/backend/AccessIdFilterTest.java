@@ -0,0 +1,89 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.exception.ResourceNotFoundException;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.AccessIdFilter;
+import fr.se2eend.backend.service.SendService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unknown access IDs are rejected by the Bloom filter before any query; new sends are added to it
+ * when registered, or by the recheck on a miss, and deleted ones leave it on rebuild.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccessIdFilterTest {
+
+    @Autowired private AccessIdFilter accessIdFilter;
+    @Autowired private SendService sendService;
+    @Autowired private SendRepository sendRepository;
+
+    @AfterEach
+    void tearDown() {
+        sendRepository.deleteAll();
+    }
+
+    private Send saveSend() {
+        return sendRepository.save(Send.builder()
+                .accessId(SendService.generateAccessId())
+                .ownerId(UUID.randomUUID())
+                .type(SendType.FILE)
+                .maxDownloads(5)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void unknownAccessId_isRejectedByFilter() {
+        long rejectedBefore = (long) accessIdFilter.metrics().get("rejected");
+
+        assertThrows(ResourceNotFoundException.class, () -> sendService.findByAccessId(SendService.generateAccessId()));
+
+        assertEquals(rejectedBefore + 1, (long) accessIdFilter.metrics().get("rejected"));
+    }
+
+    @Test
+    void registeredSend_isFoundWithoutRecheck() {
+        String accessId = SendService.generateAccessId();
+        long rechecksBefore = (long) accessIdFilter.metrics().get("rechecks");
+
+        accessIdFilter.register(accessId);
+
+        assertTrue(accessIdFilter.mightContain(accessId));
+        assertEquals(rechecksBefore, (long) accessIdFilter.metrics().get("rechecks"));
+    }
+
+    @Test
+    void sendMissedByTheFilter_isFoundByTheRecheck() {
+        // Saved without registering, like a send whose notification has not arrived yet.
+        Send send = saveSend();
+        long rechecksBefore = (long) accessIdFilter.metrics().get("rechecks");
+
+        assertEquals(send.getId(), sendService.findByAccessId(send.getAccessId()).id());
+        assertEquals(rechecksBefore + 1, (long) accessIdFilter.metrics().get("rechecks"));
+    }
+
+    @Test
+    void deletedSend_leavesFilterOnRebuild() {
+        Send kept = saveSend();
+        Send deleted = saveSend();
+        sendRepository.delete(deleted);
+
+        accessIdFilter.rebuild();
+
+        assertTrue(accessIdFilter.mightContain(kept.getAccessId()));
+        assertFalse(accessIdFilter.mightContain(deleted.getAccessId()));
+        assertEquals(true, accessIdFilter.metrics().get("built"));
+    }
+}
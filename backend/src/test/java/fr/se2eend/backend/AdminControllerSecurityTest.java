@@ -48,6 +48,8 @@ class AdminControllerSecurityTest {
         mockMvc.perform(get("/api/v1/admin/settings"))       .andExpect(status().isUnauthorized());
         mockMvc.perform(get("/api/v1/admin/deleted-sends"))  .andExpect(status().isUnauthorized());
         mockMvc.perform(get("/api/v1/admin/storage/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/admin/usage"))          .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/admin/sends/export"))   .andExpect(status().isUnauthorized());
     }
 
     // -------------------------------------------------------------------------
@@ -66,6 +68,19 @@ class AdminControllerSecurityTest {
         mockMvc.perform(get("/api/v1/admin/stats")).andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockJwtUser
+    void adminUsage_regularUser_returns403() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/usage")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockJwtUser
+    void adminExports_regularUser_returns403() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/sends/export")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/admin/deleted-sends/export")).andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockJwtUser
     void adminSettings_regularUser_returns403() throws Exception {
@@ -79,6 +94,13 @@ class AdminControllerSecurityTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockJwtUser
+    void adminRecording_regularUser_returns403() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/diagnostics/recording").param("durationSeconds", "1"))
+                .andExpect(status().isForbidden());
+    }
+
     // -------------------------------------------------------------------------
     // Admin role → passes security, reaches business logic
     // -------------------------------------------------------------------------
@@ -89,6 +111,17 @@ class AdminControllerSecurityTest {
         mockMvc.perform(get("/api/v1/admin/sends")).andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(roles = "admin")
+    void adminSendsByCursor_withAdminRole_returnsCursorPage() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/sends").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.totalExact").value(true));
+        mockMvc.perform(get("/api/v1/admin/sends").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(roles = "admin")
     void adminStats_withAdminRole_returns200() throws Exception {
@@ -113,4 +146,11 @@ class AdminControllerSecurityTest {
         mockMvc.perform(post("/api/v1/admin/sends/{id}/revoke", UUID.randomUUID()))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @WithMockUser(roles = "admin")
+    void adminRecording_invalidDuration_returns400() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/diagnostics/recording").param("durationSeconds", "0"))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.model.DeletedSend;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.support.WithMockJwtUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Streaming exports of sends and of the audit log: formats, filters and gzip.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockJwtUser(roles = "admin")
+class AdminExportTest {
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+    @Autowired private DeletedSendRepository deletedSendRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        LocalDateTime now = LocalDateTime.now();
+        createSend("Alice", now, false);
+        createSend("=HYPERLINK(\"x\"), Bob", now.minusMinutes(1), true);
+        deletedSendRepository.save(DeletedSend.builder()
+                .originalSendId(UUID.randomUUID())
+                .ownerName("Carol")
+                .deletedAt(now)
+                .deleteReason(DeleteReason.EXPIRED)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+        deletedSendRepository.deleteAll();
+    }
+
+    private void createSend(String ownerName, LocalDateTime createdAt, boolean revoked) {
+        sendRepository.save(Send.builder()
+                .accessId(UUID.randomUUID().toString().substring(0, 22))
+                .ownerName(ownerName)
+                .type(SendType.FILE)
+                .createdAt(createdAt)
+                .revoked(revoked)
+                .build());
+    }
+
+    private MvcResult export(String path, String... params) throws Exception {
+        var request = get(path);
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+
+    @Test
+    void sends_ndjsonWithFilter() throws Exception {
+        MvcResult result = export("/api/v1/admin/sends/export", "status", "active");
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"ownerName\":\"Alice\""));
+        assertEquals("attachment; filename=\"sends.ndjson\"", result.getResponse().getHeader("Content-Disposition"));
+    }
+
+    @Test
+    void sends_csvIsQuotedAndFormulaSafe() throws Exception {
+        MvcResult result = export("/api/v1/admin/sends/export", "format", "csv");
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,accessId,ownerId,ownerName,"));
+        assertTrue(lines[1].contains(",Alice,"));
+        assertTrue(lines[2].contains(",\"'=HYPERLINK(\"\"x\"\"), Bob\","));
+    }
+
+    @Test
+    void deletedSends_gzip() throws Exception {
+        MvcResult result = export("/api/v1/admin/deleted-sends/export", "reason", "EXPIRED", "gzip", "true");
+        assertEquals("application/gzip", result.getResponse().getContentType());
+        String content = new String(new GZIPInputStream(new ByteArrayInputStream(
+                result.getResponse().getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(content.contains("\"deleteReason\":\"EXPIRED\""));
+        assertEquals(1, content.lines().count());
+    }
+
+    @Test
+    void unknownFormat_isRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/sends/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
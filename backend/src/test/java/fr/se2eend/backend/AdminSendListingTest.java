@@ -0,0 +1,124 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.CursorPage;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.AdminService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pagination of the admin send listing returns every row exactly once, in the same order
+ * as the offset listing, including rows created at the same instant; statistics use the same
+ * status definitions as the filters.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminSendListingTest {
+
+    @Autowired private AdminService adminService;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+
+    @AfterEach
+    void tearDown() {
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+    }
+
+    private Send createSend(String ownerName, LocalDateTime createdAt, boolean revoked) {
+        return sendRepository.save(Send.builder()
+                .accessId(UUID.randomUUID().toString().substring(0, 22))
+                .ownerName(ownerName)
+                .ownerEmail(ownerName.toLowerCase() + "@example.com")
+                .type(SendType.FILE)
+                .createdAt(createdAt)
+                .revoked(revoked)
+                .build());
+    }
+
+    @Test
+    void cursorPages_coverAllRowsInOffsetOrder() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            // Pairs of sends share a timestamp, so the id tie-break matters.
+            createSend("Owner" + i, base.plusMinutes(i / 2), false);
+        }
+        List<UUID> expected = adminService.getAllSends(0, 100, null, null).content()
+                .stream().map(SendResponseDto::id).toList();
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPage<SendResponseDto> page = adminService.getSendsAfter(cursor, 3, null, null, "exact");
+            assertEquals(7L, page.totalElements());
+            assertTrue(page.totalExact());
+            page.content().forEach(send -> seen.add(send.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void filtersAndCountModes_apply() {
+        LocalDateTime now = LocalDateTime.now();
+        createSend("Alice_Admin", now, false);
+        createSend("AliceXAdmin", now.minusMinutes(1), false);
+        createSend("Bob", now.minusMinutes(2), true);
+
+        // "_" is matched literally, not as a LIKE wildcard.
+        CursorPage<SendResponseDto> search = adminService.getSendsAfter("", 10, "alice_", null, "approximate");
+        assertEquals(1, search.content().size());
+        assertEquals(1L, search.totalElements());
+        assertTrue(search.totalExact());
+        assertNull(search.nextCursor());
+
+        CursorPage<SendResponseDto> revoked = adminService.getSendsAfter("", 10, null, "revoked", "none");
+        assertEquals(List.of("Bob"), revoked.content().stream().map(SendResponseDto::ownerName).toList());
+        assertNull(revoked.totalElements());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> adminService.getSendsAfter("not-a-cursor", 10, null, null, "none"));
+        assertThrows(IllegalArgumentException.class,
+                () -> adminService.getSendsAfter("", 101, null, null, "none"));
+    }
+
+    @Test
+    void stats_countEachStatusOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        createSend("Active", now, false);
+        createSend("Revoked", now, true);
+        Send expired = createSend("Expired", now, false);
+        expired.setExpiresAt(now.minusMinutes(1));
+        sendRepository.save(expired);
+        Send exhausted = createSend("Exhausted", now, false);
+        exhausted.setDownloadCount(exhausted.getMaxDownloads());
+        sendRepository.save(exhausted);
+
+        Map<String, Object> stats = adminService.getStats();
+        assertEquals(4L, stats.get("totalSends"));
+        assertEquals(1L, stats.get("activeSends"));
+        assertEquals(1L, stats.get("expiredSends"));
+        assertEquals(1L, stats.get("exhaustedSends"));
+        assertEquals(1L, stats.get("revokedSends"));
+        assertEquals(0L, stats.get("totalFiles"));
+    }
+}
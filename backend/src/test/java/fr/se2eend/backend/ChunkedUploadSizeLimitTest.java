@@ -22,10 +22,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -55,11 +60,12 @@ class ChunkedUploadSizeLimitTest {
     private MockMvc mockMvc;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws IOException {
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(context)
                 .apply(springSecurity())
                 .build();
+        when(storageService.save(any(), anyLong(), anyString())).thenAnswer(invocation -> invocation.getArgument(2));
     }
 
     @AfterEach
@@ -68,6 +74,7 @@ class ChunkedUploadSizeLimitTest {
         uploadSessionRepository.deleteAll();
         sendRepository.deleteAll();
         instanceSettingRepository.deleteById(MAX_UPLOAD_KEY);
+        instanceSettingsService.reload();
     }
 
     private UploadSession newSession() {
@@ -0,0 +1,79 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.DeletedSendDto;
+import fr.se2eend.backend.dto.PagedResponse;
+import fr.se2eend.backend.model.DeletedSend;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.service.AdminService;
+import fr.se2eend.backend.service.DeletedSendPartitionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Audit log filters, and which monthly partitions the retention job drops.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DeletedSendAuditTest {
+
+    @Autowired private AdminService adminService;
+    @Autowired private DeletedSendRepository deletedSendRepository;
+
+    @AfterEach
+    void tearDown() {
+        deletedSendRepository.deleteAll();
+    }
+
+    private void audit(UUID ownerId, DeleteReason reason, LocalDateTime deletedAt) {
+        deletedSendRepository.save(DeletedSend.builder()
+                .originalSendId(UUID.randomUUID())
+                .ownerId(ownerId)
+                .deletedAt(deletedAt)
+                .deleteReason(reason)
+                .build());
+    }
+
+    @Test
+    void filters_combineOwnerReasonAndRange() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        LocalDateTime march = LocalDateTime.of(2026, 3, 15, 10, 0);
+        audit(alice, DeleteReason.EXPIRED, march);
+        audit(alice, DeleteReason.USER, march.plusDays(1));
+        audit(alice, DeleteReason.EXPIRED, march.plusMonths(1));
+        audit(bob, DeleteReason.EXPIRED, march);
+
+        assertEquals(4, adminService.getDeletedSends(0, 20, null, null, null, null).totalElements());
+
+        PagedResponse<DeletedSendDto> aliceExpiredInMarch = adminService.getDeletedSends(0, 20, alice,
+                DeleteReason.EXPIRED, LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 4, 1, 0, 0));
+        assertEquals(1, aliceExpiredInMarch.totalElements());
+        assertEquals(march, aliceExpiredInMarch.content().get(0).deletedAt());
+
+        List<LocalDateTime> alices = adminService.getDeletedSends(0, 20, alice, null, null, null).content()
+                .stream().map(DeletedSendDto::deletedAt).toList();
+        assertEquals(List.of(march.plusMonths(1), march.plusDays(1), march), alices);
+    }
+
+    @Test
+    void retention_dropsWholeMonthsBeforeTheWindow() {
+        List<String> partitions = List.of("deleted_sends_default", "deleted_sends_p202412",
+                "deleted_sends_p202501", "deleted_sends_p202502", "deleted_sends_p202601");
+
+        assertEquals(List.of("deleted_sends_p202412", "deleted_sends_p202501"),
+                DeletedSendPartitionService.expiredPartitions(partitions, YearMonth.of(2026, 2), 12));
+        assertEquals(List.of(),
+                DeletedSendPartitionService.expiredPartitions(partitions, YearMonth.of(2026, 2), 24));
+    }
+}
@@ -0,0 +1,119 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.UploadSession;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.monitoring.ChunkUploadEvent;
+import fr.se2eend.backend.monitoring.StorageOperationEvent;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.repository.UploadChunkRepository;
+import fr.se2eend.backend.repository.UploadSessionRepository;
+import fr.se2eend.backend.support.WithMockJwtUser;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The upload and storage paths emit the custom JFR events used for production diagnostics.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FlightRecorderEventsTest {
+
+    private static final String OWNER_SUB = "11111111-1111-1111-1111-111111111111";
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private UploadSessionRepository uploadSessionRepository;
+    @Autowired private UploadChunkRepository uploadChunkRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadChunkRepository.deleteAll();
+        uploadSessionRepository.deleteAll();
+        sendRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockJwtUser(sub = OWNER_SUB)
+    void chunkUpload_emitsChunkAndStorageEvents() throws Exception {
+        Send send = sendRepository.save(Send.builder()
+                .accessId(UUID.randomUUID().toString().replace("-", "").substring(0, 22))
+                .ownerId(UUID.fromString(OWNER_SUB))
+                .type(SendType.FILE)
+                .maxDownloads(5)
+                .createdAt(LocalDateTime.now())
+                .build());
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .send(send)
+                .filename("enc-filename")
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        Path dump = Files.createTempFile("events-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ChunkUploadEvent.class).withoutThreshold();
+            recording.enable(StorageOperationEvent.class).withoutThreshold();
+            recording.start();
+
+            mockMvc.perform(put("/api/v1/files/chunked/{sessionId}/chunk/{index}", session.getId(), 3)
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                            .content(new byte[128]))
+                    .andExpect(status().isNoContent());
+
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertThat(events)
+                    .filteredOn(e -> e.getEventType().getName().equals("fr.se2eend.ChunkUpload"))
+                    .singleElement()
+                    .satisfies(e -> {
+                        assertThat(e.getString("sessionId")).isEqualTo(session.getId().toString());
+                        assertThat(e.getInt("chunkIndex")).isEqualTo(3);
+                        assertThat(e.getLong("bytes")).isEqualTo(128L);
+                        assertThat(e.getBoolean("succeeded")).isTrue();
+                    });
+            assertThat(events)
+                    .filteredOn(e -> e.getEventType().getName().equals("fr.se2eend.StorageOperation"))
+                    .anySatisfy(e -> {
+                        assertThat(e.getString("operation")).isEqualTo("save");
+                        assertThat(e.getString("backend")).isEqualTo("local");
+                        assertThat(e.getLong("bytes")).isEqualTo(128L);
+                    });
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
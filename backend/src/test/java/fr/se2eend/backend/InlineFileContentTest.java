@@ -0,0 +1,96 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.SendRequestDto;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.FileService;
+import fr.se2eend.backend.service.SendDownloadService;
+import fr.se2eend.backend.service.SendService;
+import fr.se2eend.backend.storage.StorageService;
+import fr.se2eend.backend.support.WithMockJwtUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payloads up to the inline threshold (4 KB by default) live in the files row: downloads and
+ * deletions never reach storage. Bigger ones still go to storage.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockJwtUser
+class InlineFileContentTest {
+
+    @Autowired private SendService sendService;
+    @Autowired private FileService fileService;
+    @Autowired private SendDownloadService sendDownloadService;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+    @Autowired private DeletedSendRepository deletedSendRepository;
+    @Autowired private StorageService storageService;
+
+    @AfterEach
+    void tearDown() {
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+        deletedSendRepository.deleteAll();
+    }
+
+    private SendResponseDto upload(SendType type, byte[] content) throws Exception {
+        SendResponseDto send = sendService.createSend(new SendRequestDto(null, type, null, 5, false, null));
+        fileService.addFileToSend(send.id(),
+                new MockMultipartFile("file", "enc.bin", "application/octet-stream", content));
+        return send;
+    }
+
+    @Test
+    void smallPayload_isStoredAndServedInline() throws Exception {
+        byte[] content = "encrypted text".getBytes();
+        SendResponseDto send = upload(SendType.TEXT, content);
+
+        FileMetadata file = fileRepository.findBySendId(send.id()).get(0);
+        assertTrue(file.isInline());
+        assertNull(file.getStoragePath());
+
+        SendDownloadService.DownloadStream download = sendDownloadService.downloadByAccessId(send.accessId(), null);
+        try (InputStream stream = download.stream()) {
+            assertArrayEquals(content, stream.readAllBytes());
+        }
+        assertEquals(content.length, download.sizeBytes());
+        assertEquals(1, sendRepository.findById(send.id()).orElseThrow().getDownloadCount());
+
+        sendService.delete(send.id());
+        assertFalse(sendRepository.existsById(send.id()));
+        assertEquals(content.length, deletedSendRepository.findAll().get(0).getTotalSizeBytes());
+    }
+
+    @Test
+    void payloadOverThreshold_goesToStorage() throws Exception {
+        byte[] content = new byte[4 * 1024 + 1];
+        Arrays.fill(content, (byte) 7);
+        SendResponseDto send = upload(SendType.FILE, content);
+
+        FileMetadata file = fileRepository.findBySendId(send.id()).get(0);
+        assertFalse(file.isInline());
+        assertNull(file.getInlineContent());
+        try (InputStream stream = storageService.read(file.getStoragePath())) {
+            assertArrayEquals(content, stream.readAllBytes());
+        }
+
+        sendService.delete(send.id());
+        assertThrows(IOException.class, () -> storageService.read(file.getStoragePath()));
+    }
+}
@@ -0,0 +1,74 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.model.InstanceSetting;
+import fr.se2eend.backend.repository.InstanceSettingRepository;
+import fr.se2eend.backend.service.InstanceSettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Settings are served from an in-memory snapshot, refreshed on write and on external changes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InstanceSettingsCacheTest {
+
+    private static final String KEY = "test_cached_setting";
+    private static final String OTHER_KEY = "test_other_setting";
+
+    @Autowired private InstanceSettingsService instanceSettingsService;
+    @Autowired private InstanceSettingRepository instanceSettingRepository;
+
+    @AfterEach
+    void tearDown() {
+        instanceSettingRepository.deleteById(KEY);
+        instanceSettingRepository.deleteById(OTHER_KEY);
+        instanceSettingsService.reload();
+    }
+
+    @Test
+    void set_isVisibleImmediately() {
+        instanceSettingsService.set(KEY, "42");
+        assertThat(instanceSettingsService.getLong(KEY, 0)).isEqualTo(42);
+
+        instanceSettingsService.set(KEY, "not-a-number");
+        assertThat(instanceSettingsService.get(KEY, null)).isEqualTo("not-a-number");
+        assertThat(instanceSettingsService.getLong(KEY, 7)).isEqualTo(7);
+    }
+
+    @Test
+    void changeMadeElsewhere_isPickedUpByPeriodicCheck() {
+        instanceSettingsService.set(KEY, "true");
+
+        // Simulates another instance (or manual SQL) updating the row behind this cache's back.
+        InstanceSetting setting = instanceSettingRepository.findById(KEY).orElseThrow();
+        setting.setValue("false");
+        instanceSettingRepository.save(setting);
+        assertThat(instanceSettingsService.getBoolean(KEY, true)).isTrue();
+
+        instanceSettingsService.reloadIfChanged();
+        assertThat(instanceSettingsService.getBoolean(KEY, true)).isFalse();
+
+        instanceSettingRepository.deleteById(KEY);
+        instanceSettingsService.reloadIfChanged();
+        assertThat(instanceSettingsService.get(KEY, "default")).isEqualTo("default");
+    }
+
+    @Test
+    void settingReplacedElsewhere_isPickedUpByPeriodicCheck() {
+        instanceSettingsService.set(KEY, "true");
+
+        // Same row count and versions as before: only the content tells the change.
+        instanceSettingRepository.deleteById(KEY);
+        instanceSettingRepository.save(new InstanceSetting(OTHER_KEY, "true"));
+
+        instanceSettingsService.reloadIfChanged();
+        assertThat(instanceSettingsService.get(KEY, "default")).isEqualTo("default");
+        assertThat(instanceSettingsService.get(OTHER_KEY, null)).isEqualTo("true");
+    }
+}
@@ -0,0 +1,157 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.JobLeaseRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.AdminService;
+import fr.se2eend.backend.service.JobLeaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two instances sharing the database: a lease is held by one of them at a time, is taken over once
+ * it expires, and the sharded cleanup is split between them without overlap.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JobLeaseTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Autowired private JobLeaseRepository jobLeaseRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private DeletedSendRepository deletedSendRepository;
+    @Autowired private AdminService adminService;
+
+    private JobLeaseService nodeA;
+    private JobLeaseService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new JobLeaseService(jobLeaseRepository, transactionManager, "node-a");
+        nodeB = new JobLeaseService(jobLeaseRepository, transactionManager, "node-b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseRepository.deleteAll();
+        sendRepository.deleteAll();
+        deletedSendRepository.deleteAll();
+    }
+
+    @Test
+    void lease_isExclusiveUntilReleased() {
+        assertTrue(nodeA.tryAcquire("job", TTL));
+        assertFalse(nodeB.tryAcquire("job", TTL));
+        assertFalse(nodeA.tryAcquire("job", TTL));
+
+        nodeA.release("job", null);
+        assertTrue(nodeB.tryAcquire("job", TTL));
+        assertEquals("node-b", jobLeaseRepository.findById("job").orElseThrow().getHolder());
+    }
+
+    @Test
+    void expiredLease_isTakenOver() {
+        assertTrue(nodeA.tryAcquire("job", Duration.ZERO));
+
+        assertTrue(nodeB.tryAcquire("job", TTL));
+        assertFalse(nodeA.tryAcquire("job", TTL));
+    }
+
+    @Test
+    void keptLease_skipsLateInstances_andFailedRunFreesIt() {
+        LocalDateTime keepUntil = LocalDateTime.now().plusMinutes(1);
+        assertTrue(nodeA.runExclusive("job", TTL, keepUntil, () -> { }));
+        assertFalse(nodeB.runExclusive("job", TTL, keepUntil, () -> fail("ran twice")));
+
+        assertThrows(IllegalStateException.class, () -> nodeA.runExclusive("other", TTL, keepUntil, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertTrue(nodeB.tryAcquire("other", TTL));
+    }
+
+    @Test
+    void renew_extendsOnlyALeaseStillHeld() {
+        assertTrue(nodeA.tryAcquire("job", TTL));
+        assertTrue(nodeA.renew("job", TTL));
+        assertFalse(nodeB.renew("job", TTL));
+
+        assertTrue(nodeA.tryAcquire("expired", Duration.ZERO));
+        assertFalse(nodeA.renew("expired", TTL));
+    }
+
+    @Test
+    void cleanup_deletesInBatches_andStopsWhenTheLeaseIsLost() {
+        List<Send> sends = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            sends.add(Send.builder()
+                    .accessId(UUID.randomUUID().toString().substring(0, 22))
+                    .type(SendType.TEXT)
+                    .revoked(true)
+                    .build());
+        }
+        sendRepository.saveAll(sends);
+        List<UUID> candidates = adminService.findCleanupCandidates(1).get(0);
+        AtomicInteger checks = new AtomicInteger();
+
+        Map<String, Object> result = adminService.runCleanup(0, candidates, () -> {
+            checks.incrementAndGet();
+            return false;
+        });
+
+        assertEquals(1, checks.get());
+        assertEquals(500, result.get("deletedSends"));
+        assertEquals(100, sendRepository.count());
+    }
+
+    @Test
+    void shardedCleanup_isSplitBetweenInstances() {
+        int shards = 4;
+        for (int i = 0; i < 20; i++) {
+            sendRepository.save(Send.builder()
+                    .accessId(UUID.randomUUID().toString().substring(0, 22))
+                    .type(SendType.TEXT)
+                    .revoked(i % 2 == 0)
+                    .build());
+        }
+        LocalDateTime keepUntil = LocalDateTime.now().plusMinutes(1);
+        Map<Integer, List<UUID>> candidates = adminService.findCleanupCandidates(shards);
+        assertEquals(10, candidates.values().stream().mapToInt(List::size).sum());
+
+        CompletableFuture<List<Integer>> onA = CompletableFuture.supplyAsync(() -> nodeA.runSharded("cleanup", shards,
+                TTL, keepUntil, shard -> adminService.runCleanup(shard, candidates.getOrDefault(shard, List.of()),
+                        () -> nodeA.renew(JobLeaseService.shardLease("cleanup", shard), TTL))));
+        CompletableFuture<List<Integer>> onB = CompletableFuture.supplyAsync(() -> nodeB.runSharded("cleanup", shards,
+                TTL, keepUntil, shard -> adminService.runCleanup(shard, candidates.getOrDefault(shard, List.of()),
+                        () -> nodeB.renew(JobLeaseService.shardLease("cleanup", shard), TTL))));
+
+        Set<Integer> ran = new HashSet<>(onA.join());
+        for (int shard : onB.join()) {
+            assertTrue(ran.add(shard), "shard " + shard + " ran twice");
+        }
+        assertEquals(Set.of(0, 1, 2, 3), ran);
+        assertEquals(10, sendRepository.count());
+        assertEquals(10, deletedSendRepository.count());
+    }
+}
@@ -0,0 +1,74 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.config.CachingJwtDecoder;
+import fr.se2eend.backend.config.KeycloakJwtAuthenticationConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Validated tokens are reused until they expire; invalid ones are always re-checked.
+ */
+class JwtAuthenticationCacheTest {
+
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private final JwtDecoder delegate = token -> {
+        decodes.incrementAndGet();
+        if (token.startsWith("bad")) {
+            throw new JwtException("invalid signature");
+        }
+        Instant expiresAt = token.startsWith("expired") ? Instant.now().minusSeconds(1) : Instant.now().plusSeconds(300);
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(Instant.now().minusSeconds(10))
+                .expiresAt(expiresAt)
+                .claim("scope", "openid profile")
+                .claim("realm_access", Map.of("roles", List.of("admin", "user")))
+                .build();
+    };
+
+    @Test
+    void validToken_isDecodedOnce() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodes).hasValue(2);
+    }
+
+    @Test
+    void invalidAndExpiredTokens_areNotReused() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+        assertThatThrownBy(() -> decoder.decode("bad-token")).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad-token")).isInstanceOf(JwtException.class);
+        decoder.decode("expired-token");
+        decoder.decode("expired-token");
+
+        assertThat(decodes).hasValue(4);
+    }
+
+    @Test
+    void converter_mapsScopesAndRealmRoles() {
+        var authentication = new KeycloakJwtAuthenticationConverter().convert(delegate.decode("token"));
+
+        assertThat(authentication.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("SCOPE_openid", "SCOPE_profile", "ROLE_admin", "ROLE_user");
+    }
+}
@@ -0,0 +1,73 @@
+package fr.se2eend.backend;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import fr.se2eend.backend.config.JwkSetConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The Keycloak decoder honours the configured JWS algorithms, issuer and audiences.
+ */
+class KeycloakJwtDecoderTest {
+
+    private static final String ISSUER = "http://keycloak.test/realms/se2eend";
+
+    private static RSAKey key;
+
+    @BeforeAll
+    static void generateKey() throws JOSEException {
+        key = new RSAKeyGenerator(2048).keyID("test").generate();
+    }
+
+    private static String token(String issuer, String audience) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user")
+                .issuer(issuer)
+                .audience(audience)
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static JwtDecoder decoder(List<String> algorithms, List<String> audiences) {
+        return new JwkSetConfig().keycloakJwtDecoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())),
+                algorithms, ISSUER, audiences);
+    }
+
+    @Test
+    void acceptsTokensSignedWithAConfiguredAlgorithm() throws JOSEException {
+        assertThat(decoder(List.of("RS256"), List.of()).decode(token(ISSUER, "account")).getSubject())
+                .isEqualTo("user");
+        assertThatThrownBy(() -> decoder(List.of("RS512"), List.of()).decode(token(ISSUER, "account")))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void checksIssuerAndAudiences() {
+        assertThatThrownBy(() -> decoder(List.of("RS256"), List.of()).decode(token("http://other", "account")))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder(List.of("RS256"), List.of("se2eend")).decode(token(ISSUER, "account")))
+                .isInstanceOf(JwtException.class);
+    }
+}
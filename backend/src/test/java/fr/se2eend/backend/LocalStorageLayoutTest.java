@@ -0,0 +1,100 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.storage.LocalFileSystemStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * New objects go to hash-prefix directories, objects written with the flat layout stay readable,
+ * and the migration moves them (chunk sessions as a whole) without changing their keys.
+ */
+class LocalStorageLayoutTest {
+
+    @TempDir
+    Path baseDir;
+
+    private static void save(LocalFileSystemStorage storage, String key) throws IOException {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        assertEquals(key, storage.save(new ByteArrayInputStream(bytes), bytes.length, key));
+    }
+
+    private static String read(LocalFileSystemStorage storage, String key) throws IOException {
+        try (InputStream stream = storage.read(key)) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            return files.filter(Files::isRegularFile).map(baseDir::relativize).toList();
+        }
+    }
+
+    @Test
+    void newObjectsAreSharded() throws IOException {
+        LocalFileSystemStorage storage = new LocalFileSystemStorage(baseDir, 2);
+        String file = UUID.randomUUID().toString();
+        String session = UUID.randomUUID().toString();
+        save(storage, file);
+        save(storage, "chunks/" + session + "/0");
+        save(storage, "chunks/" + session + "/1");
+
+        for (Path path : files()) {
+            int depth = path.getName(0).toString().equals("chunks") ? 1 : 0;
+            assertTrue(path.getName(depth).toString().matches("[0-9a-f]{2}"), path::toString);
+            assertTrue(path.getName(depth + 1).toString().matches("[0-9a-f]{2}"), path::toString);
+        }
+        assertEquals(file, read(storage, file));
+        assertEquals(("chunks/" + session + "/1").length(), storage.size("chunks/" + session + "/1").orElseThrow());
+        assertTrue(storage.delete(file));
+        assertFalse(storage.delete(file));
+        assertThrows(SecurityException.class, () -> storage.read("../outside"));
+    }
+
+    @Test
+    void flatObjects_stayReadable_andAreMigrated() throws IOException, InterruptedException {
+        LocalFileSystemStorage flat = new LocalFileSystemStorage(baseDir, 0);
+        List<String> keys = Stream.generate(() -> UUID.randomUUID().toString()).limit(50).toList();
+        for (String key : keys) {
+            save(flat, key);
+        }
+        String session = UUID.randomUUID().toString();
+        save(flat, "chunks/" + session + "/0");
+        save(flat, "chunks/" + session + "/1");
+        assertTrue(Files.exists(baseDir.resolve(keys.get(0))));
+
+        LocalFileSystemStorage sharded = new LocalFileSystemStorage(baseDir, 2);
+        assertEquals(keys.get(0), read(sharded, keys.get(0)));
+        // The session keeps receiving chunks after the switch: they land in the new layout.
+        save(sharded, "chunks/" + session + "/2");
+
+        Map<String, Object> result = sharded.migrateLayout(4, 10_000);
+
+        assertEquals(51L, result.get("moved"));
+        assertEquals(0L, result.get("failed"));
+        assertEquals(List.of(), files().stream().filter(path -> path.getNameCount() < 3).toList());
+        for (String key : keys) {
+            assertEquals(key, read(sharded, key));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals("chunks/" + session + "/" + i, read(sharded, "chunks/" + session + "/" + i));
+        }
+        assertFalse(Files.exists(baseDir.resolve("chunks").resolve(session)));
+
+        // Nothing left to move on a second run.
+        assertEquals(0L, sharded.migrateLayout(1, 10_000).get("moved"));
+    }
+}
@@ -0,0 +1,122 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.CursorPage;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.SendService;
+import fr.se2eend.backend.support.WithMockJwtUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The owner send listing (projection query) pages through the caller's sends only, newest first,
+ * with their file metadata.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockJwtUser
+class OwnerSendListingTest {
+
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Autowired private SendService sendService;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+
+    @AfterEach
+    void tearDown() {
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+    }
+
+    private Send createSend(UUID ownerId, LocalDateTime createdAt) {
+        return sendRepository.save(Send.builder()
+                .accessId(UUID.randomUUID().toString().substring(0, 22))
+                .ownerId(ownerId)
+                .type(SendType.FILE)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    @Test
+    void cursorPages_returnOwnSendsNewestFirstWithFiles() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            // Pairs of sends share a timestamp, so the id tie-break matters.
+            createSend(OWNER, base.plusMinutes(i / 2));
+        }
+        createSend(UUID.randomUUID(), base.plusMinutes(10));
+        Send withFile = createSend(OWNER, base.minusMinutes(1));
+        fileRepository.save(FileMetadata.builder()
+                .send(withFile)
+                .filename("report.bin")
+                .storagePath("report.bin")
+                .sizeBytes(42)
+                .build());
+
+        CursorPage<SendResponseDto> unpaged = sendService.findAll();
+        assertNull(unpaged.nextCursor());
+        List<SendResponseDto> all = unpaged.content();
+        assertEquals(6, all.size());
+
+        List<SendResponseDto> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPage<SendResponseDto> page = sendService.findPage(cursor, 2);
+            seen.addAll(page.content());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(all.stream().map(SendResponseDto::id).toList(),
+                seen.stream().map(SendResponseDto::id).toList());
+        SendResponseDto last = seen.get(seen.size() - 1);
+        assertEquals(withFile.getId(), last.id());
+        assertEquals(7, withFile.getId().version());
+        assertEquals(7, last.file().id().version());
+        assertEquals("report.bin", last.file().filename());
+        assertEquals(42L, last.file().sizeBytes());
+        assertNull(seen.get(0).file());
+    }
+
+    @Test
+    void unpagedListing_returnsTheNewestSendsUpToTheLimitAndACursorForTheRest() {
+        // sends.list-limit is 10 in the test profile.
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < 11; i++) {
+            createSend(OWNER, base.plusMinutes(i));
+        }
+
+        CursorPage<SendResponseDto> newest = sendService.findAll();
+
+        assertEquals(10, newest.content().size());
+        assertEquals(base.plusMinutes(10), newest.content().get(0).createdAt());
+        assertEquals(base.plusMinutes(1), newest.content().get(9).createdAt());
+        CursorPage<SendResponseDto> rest = sendService.findPage(newest.nextCursor(), 10);
+        assertEquals(List.of(base), rest.content().stream().map(SendResponseDto::createdAt).toList());
+        assertNull(rest.nextCursor());
+    }
+
+    @Test
+    void invalidCursorOrSize_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> sendService.findPage("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> sendService.findPage("", 0));
+        assertThrows(IllegalArgumentException.class, () -> sendService.findPage("", 101));
+    }
+}
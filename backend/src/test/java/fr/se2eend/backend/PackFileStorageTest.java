@@ -0,0 +1,115 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.storage.PackFileStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Small objects share pack files, large ones stay standalone; the index survives a restart and
+ * compaction reclaims deleted space without losing live objects.
+ */
+class PackFileStorageTest {
+
+    private static final long MAX_OBJECT = 1024;
+    private static final long PACK_SIZE = 8 * 1024;
+
+    @TempDir
+    Path baseDir;
+
+    private static byte[] payload(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed + i);
+        }
+        return bytes;
+    }
+
+    private static void save(PackFileStorage storage, String key, byte[] bytes) throws IOException {
+        storage.save(new ByteArrayInputStream(bytes), bytes.length, key);
+    }
+
+    private static byte[] read(PackFileStorage storage, String key) throws IOException {
+        try (InputStream stream = storage.read(key)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private long regularFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void smallObjectsArePacked_largeOnesStandalone() throws IOException {
+        PackFileStorage storage = new PackFileStorage(baseDir, MAX_OBJECT, PACK_SIZE);
+        for (int i = 0; i < 100; i++) {
+            save(storage, "chunks/session/" + i, payload(100, i));
+        }
+        byte[] large = payload(4096, 7);
+        save(storage, "large", large);
+
+        // 100 objects in 2 packs + the journal, and the large object as a file of its own.
+        assertEquals(4, regularFiles());
+        assertArrayEquals(payload(100, 42), read(storage, "chunks/session/42"));
+        assertArrayEquals(large, read(storage, "large"));
+        assertEquals(100, storage.size("chunks/session/42").orElseThrow());
+
+        assertTrue(storage.delete("chunks/session/42"));
+        assertThrows(IOException.class, () -> storage.read("chunks/session/42"));
+        assertFalse(storage.delete("chunks/session/42"));
+    }
+
+    @Test
+    void indexIsReplayedOnRestart() throws IOException {
+        PackFileStorage storage = new PackFileStorage(baseDir, MAX_OBJECT, PACK_SIZE);
+        save(storage, "a", payload(10, 1));
+        save(storage, "b", payload(20, 2));
+        save(storage, "a", payload(30, 3));
+        storage.delete("b");
+
+        PackFileStorage reopened = new PackFileStorage(baseDir, MAX_OBJECT, PACK_SIZE);
+        assertArrayEquals(payload(30, 3), read(reopened, "a"));
+        assertThrows(IOException.class, () -> reopened.read("b"));
+    }
+
+    @Test
+    void compaction_reclaimsDeletedSpace_andKeepsLiveObjects() throws IOException {
+        PackFileStorage storage = new PackFileStorage(baseDir, MAX_OBJECT, PACK_SIZE);
+        for (int i = 0; i < 200; i++) {
+            save(storage, "k" + i, payload(100, i));
+        }
+        // Keep an open stream on an object that compaction moves.
+        InputStream open = storage.read("k0");
+        for (int i = 0; i < 200; i++) {
+            if (i % 10 != 0) {
+                storage.delete("k" + i);
+            }
+        }
+        long packBytesBefore = (long) storage.metrics().get("packBytes");
+
+        Map<String, Object> result = storage.compact(0.5);
+
+        assertTrue((int) result.get("packsRemoved") > 0);
+        assertTrue((long) storage.metrics().get("packBytes") < packBytesBefore / 2);
+        assertArrayEquals(payload(100, 0), open.readAllBytes());
+        open.close();
+        for (int i = 0; i < 200; i += 10) {
+            assertArrayEquals(payload(100, i), read(storage, "k" + i));
+        }
+
+        PackFileStorage reopened = new PackFileStorage(baseDir, MAX_OBJECT, PACK_SIZE);
+        assertEquals(20, reopened.metrics().get("packedObjects"));
+        assertArrayEquals(payload(100, 190), read(reopened, "k190"));
+    }
+}
@@ -0,0 +1,136 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.AccessIdFilter;
+import fr.se2eend.backend.storage.StorageService;
+import fr.se2eend.backend.support.QueryBudget;
+import fr.se2eend.backend.support.WithMockJwtUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL budgets of the hot endpoints. Each listing runs over {@value #SENDS} sends with a file, more
+ * than any page, so a per-row query (N+1) or an unbounded read blows the budget. When a change legitimately needs
+ * more, raise the budget here in the same commit so the cost is reviewed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockJwtUser
+class QueryBudgetTest {
+
+    private static final int SENDS = 25;
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+    @Autowired private StorageService storageService;
+    @Autowired private AccessIdFilter accessIdFilter;
+    @Value("${sends.list-limit}") private int listLimit;
+
+    private MockMvc mockMvc;
+    private QueryBudget budget;
+    private final List<Send> sends = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assertTrue(SENDS > listLimit, "the fixture must not fit in one listing");
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        budget = QueryBudget.of(entityManagerFactory);
+
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < SENDS; i++) {
+            Send send = sendRepository.save(Send.builder()
+                    .accessId(UUID.randomUUID().toString().replace("-", "").substring(0, 22))
+                    .ownerId(OWNER)
+                    .ownerName("testuser")
+                    .type(SendType.FILE)
+                    .maxDownloads(100)
+                    .createdAt(base.plusMinutes(i))
+                    .build());
+            accessIdFilter.register(send.getAccessId());
+            byte[] content = ("content-" + i).getBytes();
+            String path = storageService.save(new ByteArrayInputStream(content), content.length, "file-" + i);
+            fileRepository.save(FileMetadata.builder()
+                    .send(send)
+                    .filename("file-" + i)
+                    .storagePath(path)
+                    .sizeBytes(content.length)
+                    .build());
+            sends.add(send);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+    }
+
+    @Test
+    void ownerListing() throws Exception {
+        // One projection query joining files, whatever the number of sends, bounded by the limit
+        // (plus the row telling the list was cut).
+        budget.assertWithin("GET /sends", 1, listLimit + 1, () ->
+                mockMvc.perform(get("/api/v1/sends")).andExpect(status().isOk())
+                        .andExpect(header().exists("X-Next-Cursor")));
+        budget.assertWithin("GET /sends?cursor", 1, 6, () ->
+                mockMvc.perform(get("/api/v1/sends").param("cursor", "").param("size", "5"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void publicSendLookupAndDownload() throws Exception {
+        String accessId = sends.get(0).getAccessId();
+        // Cold: the send, then its file; afterwards the metadata cache answers.
+        budget.assertWithin("GET /sends/{accessId} (cold)", 2, 3, () ->
+                mockMvc.perform(get("/api/v1/sends/{id}", accessId)).andExpect(status().isOk()));
+        budget.assertWithin("GET /sends/{accessId} (cached)", 0, 0, () ->
+                mockMvc.perform(get("/api/v1/sends/{id}", accessId)).andExpect(status().isOk()));
+        // Only the conditional download-count increment.
+        budget.assertWithin("GET /sends/{accessId}/download", 1, 0, () ->
+                mockMvc.perform(get("/api/v1/sends/{id}/download", accessId)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @WithMockJwtUser(roles = "admin")
+    void adminListing() throws Exception {
+        // Page (sends joined with files) plus count.
+        budget.assertWithin("GET /admin/sends?page", 2, 16, () ->
+                mockMvc.perform(get("/api/v1/admin/sends").param("page", "0").param("size", "5"))
+                        .andExpect(status().isOk()));
+        budget.assertWithin("GET /admin/sends?cursor", 2, 19, () ->
+                mockMvc.perform(get("/api/v1/admin/sends").param("cursor", "").param("size", "5")
+                                .param("count", "exact"))
+                        .andExpect(status().isOk()));
+        // One aggregate over sends plus the file count.
+        budget.assertWithin("GET /admin/stats", 2, 2, () ->
+                mockMvc.perform(get("/api/v1/admin/stats")).andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,166 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.ratelimit.RateLimitFilter;
+import fr.se2eend.backend.ratelimit.RateLimiter;
+import fr.se2eend.backend.repository.InstanceSettingRepository;
+import fr.se2eend.backend.service.InstanceSettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Public send endpoints are throttled per client, per client and send, and password attempts per
+ * send, with limits taken from instance settings.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RateLimitTest {
+
+    private static final List<String> SETTINGS = List.of(
+            RateLimitFilter.SEND_LOOKUP_SETTING, RateLimitFilter.DOWNLOAD_SETTING,
+            RateLimitFilter.ACCESS_ID_SETTING, RateLimitFilter.PASSWORD_SETTING);
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private InstanceSettingsService instanceSettingsService;
+    @Autowired private InstanceSettingRepository instanceSettingRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SETTINGS.forEach(instanceSettingRepository::deleteById);
+        instanceSettingsService.reload();
+    }
+
+    @Test
+    void lookup_isLimitedPerClient_with429AndRetryAfter() throws Exception {
+        instanceSettingsService.set(RateLimitFilter.SEND_LOOKUP_SETTING, "3");
+        String client = "198.51.100.10";
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(lookup(client)).andExpect(status().isNotFound());
+        }
+        String retryAfter = mockMvc.perform(lookup(client))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value("RATE_LIMITED"))
+                .andReturn().getResponse().getHeader("Retry-After");
+        assertThat(Long.parseLong(retryAfter)).isBetween(1L, 20L);
+
+        // Another client has its own bucket.
+        mockMvc.perform(lookup("198.51.100.11")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void forwardedFor_isHonoredOnlyFromTrustedProxies() throws Exception {
+        instanceSettingsService.set(RateLimitFilter.SEND_LOOKUP_SETTING, "1");
+
+        // Through the local proxy, each forwarded client is counted separately.
+        mockMvc.perform(lookup("127.0.0.1").header("X-Forwarded-For", "203.0.113.1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(lookup("127.0.0.1").header("X-Forwarded-For", "203.0.113.2"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(lookup("127.0.0.1").header("X-Forwarded-For", "6.6.6.6, 203.0.113.2"))
+                .andExpect(status().isTooManyRequests());
+
+        // A direct client cannot escape its bucket by making up a header.
+        mockMvc.perform(lookup("198.51.100.20").header("X-Forwarded-For", "203.0.113.3"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(lookup("198.51.100.20").header("X-Forwarded-For", "203.0.113.4"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void passwordAttempts_areLimitedPerSend_acrossClients() throws Exception {
+        instanceSettingsService.set(RateLimitFilter.PASSWORD_SETTING, "2");
+        String accessId = "rl-" + UUID.randomUUID();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(download(accessId, "198.51.100." + (30 + i)).header("X-Send-Password", "guess" + i))
+                    .andExpect(status().isNotFound());
+        }
+        mockMvc.perform(download(accessId, "198.51.100.40").header("X-Send-Password", "guess"))
+                .andExpect(status().isTooManyRequests());
+
+        // Other sends and password-less requests are not affected.
+        mockMvc.perform(download("rl-" + UUID.randomUUID(), "198.51.100.40").header("X-Send-Password", "guess"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(download(accessId, "198.51.100.40")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void sendBucket_isPerClient_soOneClientCannotExhaustALink() throws Exception {
+        instanceSettingsService.set(RateLimitFilter.ACCESS_ID_SETTING, "2");
+        String accessId = "rl-" + UUID.randomUUID();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(download(accessId, "198.51.100.50")).andExpect(status().isNotFound());
+        }
+        mockMvc.perform(download(accessId, "198.51.100.50")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(download(accessId, "198.51.100.51")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void ownerLookupBySendId_isNotThrottled() throws Exception {
+        instanceSettingsService.set(RateLimitFilter.SEND_LOOKUP_SETTING, "1");
+        for (int i = 0; i < 3; i++) {
+            int status = mockMvc.perform(get("/api/v1/sends/{id}", UUID.randomUUID())
+                            .with(request -> {
+                                request.setRemoteAddr("198.51.100.60");
+                                return request;
+                            }))
+                    .andReturn().getResponse().getStatus();
+            assertThat(status).isNotEqualTo(429);
+        }
+    }
+
+    @Test
+    void fullBucketTable_refusesNewKeys() {
+        RateLimiter limiter = new RateLimiter(2);
+        assertThat(limiter.tryAcquire("a", 10).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("b", 10).allowed()).isTrue();
+
+        RateLimiter.Decision decision = limiter.tryAcquire("c", 10);
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterSeconds()).isPositive();
+        assertThat(limiter.tryAcquire("a", 10).allowed()).isTrue();
+    }
+
+    private MockHttpServletRequestBuilder lookup(String client) {
+        return get("/api/v1/sends/{accessId}", "rl-" + UUID.randomUUID())
+                .with(request -> {
+                    request.setRemoteAddr(client);
+                    return request;
+                });
+    }
+
+    private MockHttpServletRequestBuilder download(String accessId, String client) {
+        return get("/api/v1/sends/{accessId}/download", accessId)
+                .with(request -> {
+                    request.setRemoteAddr(client);
+                    return request;
+                });
+    }
+}
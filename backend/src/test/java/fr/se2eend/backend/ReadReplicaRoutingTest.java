@@ -0,0 +1,144 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.config.ReadReplicaConfig;
+import fr.se2eend.backend.config.ReadReplicaRoutingDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read-only transactions go to the replica, the rest to the primary, and a user who just wrote
+ * reads from the primary. Two in-memory H2 databases stand for the primary and the replica. Both
+ * the plain JDBC transaction manager and the JPA one the application uses are covered.
+ */
+class ReadReplicaRoutingTest {
+
+    private DataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routing = new ReadReplicaConfig().dataSource(primary, replica, Duration.ofMinutes(1));
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void authenticate(UUID user) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(user.toString())
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    @Test
+    void readOnlyTransactions_goToTheReplica() {
+        assertEquals("replica", readOnlyNode());
+        assertEquals("primary", readWrite.execute(status ->
+                jdbc.queryForObject("SELECT name FROM node", String.class)));
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void userWhoJustWrote_readsFromThePrimary() {
+        UUID writer = UUID.randomUUID();
+        authenticate(writer);
+        assertEquals("replica", readOnlyNode());
+
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+        assertEquals("primary", readOnlyNode());
+
+        authenticate(UUID.randomUUID());
+        assertEquals("replica", readOnlyNode());
+    }
+
+    @Test
+    void onPrimary_overridesReadOnlyRouting() {
+        assertEquals("primary", ReadReplicaRoutingDataSource.onPrimary(this::readOnlyNode));
+        assertEquals("replica", readOnlyNode());
+    }
+
+    @Test
+    void jpaTransactions_areRoutedTheSameWay() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(routing);
+        factoryBean.setPersistenceProviderClass(HibernatePersistenceProvider.class);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(ReadReplicaRoutingTest.class.getPackageName() + ".none");
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_HOLD"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory factory = factoryBean.getObject();
+        try {
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+            JpaTransactionManager transactionManager = new JpaTransactionManager(factory);
+            TransactionTemplate jpaReadWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+            jpaReadOnly.setReadOnly(true);
+            Supplier<String> node = () -> jpaReadOnly.execute(status ->
+                    (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult());
+
+            assertEquals("replica", node.get());
+            assertEquals("primary", ReadReplicaRoutingDataSource.onPrimary(node));
+            assertEquals("primary", jpaReadWrite.execute(status ->
+                    entityManager.createNativeQuery("SELECT name FROM node").getSingleResult()));
+
+            UUID writer = UUID.randomUUID();
+            authenticate(writer);
+            jpaReadWrite.executeWithoutResult(status ->
+                    entityManager.createNativeQuery("UPDATE node SET name = name").executeUpdate());
+            assertEquals("primary", node.get());
+        } finally {
+            factory.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.storage.S3Placement;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Placement is deterministic, spreads keys over the targets, survives adding a target for most keys,
+ * and storage paths (including those written before placement existed) decode without a lookup.
+ */
+class S3PlacementTest {
+
+    @Test
+    void storagePath_encodesTargetAndHashPrefixedKey() {
+        S3Placement placement = new S3Placement(List.of("a", "b", "c"), 4);
+        String path = placement.place("chunks/session/0");
+
+        assertEquals(path, placement.place("chunks/session/0"));
+        assertTrue(path.matches("[abc]:[0-9a-f]{4}/chunks/session/0"), path);
+        S3Placement.Location location = placement.locate(path);
+        assertEquals(path.substring(0, 1), location.target());
+        assertEquals(path.substring(2), location.key());
+    }
+
+    @Test
+    void legacyKeys_resolveToDefaultTarget() {
+        S3Placement placement = new S3Placement(List.of("a"), 0);
+        String legacy = UUID.randomUUID().toString();
+
+        assertEquals(new S3Placement.Location(S3Placement.DEFAULT_TARGET, legacy), placement.locate(legacy));
+        assertEquals(new S3Placement.Location(S3Placement.DEFAULT_TARGET, "chunks/x:y/0"),
+                placement.locate("chunks/x:y/0"));
+        assertEquals("a:" + legacy, placement.place(legacy));
+    }
+
+    @Test
+    void keysSpreadEvenly_andAddingATargetMovesOnlyItsShare() {
+        S3Placement four = new S3Placement(List.of("s0", "s1", "s2", "s3"), 4);
+        S3Placement five = new S3Placement(List.of("s0", "s1", "s2", "s3", "s4"), 4);
+        Map<String, Integer> counts = new HashMap<>();
+        int moved = 0;
+        int keys = 20_000;
+        for (int i = 0; i < keys; i++) {
+            String key = UUID.randomUUID().toString();
+            String before = four.locate(four.place(key)).target();
+            counts.merge(before, 1, Integer::sum);
+            if (!before.equals(five.locate(five.place(key)).target())) {
+                moved++;
+            }
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertEquals(keys / 4.0, count, keys * 0.02));
+        assertEquals(keys / 5.0, moved, keys * 0.02);
+    }
+
+    @Test
+    void invalidConfiguration_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new S3Placement(List.of(), 4));
+        assertThrows(IllegalArgumentException.class, () -> new S3Placement(List.of("bad:name"), 4));
+        assertThrows(IllegalArgumentException.class, () -> new S3Placement(List.of("a"), 17));
+    }
+}
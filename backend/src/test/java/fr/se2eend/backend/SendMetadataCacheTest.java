@@ -0,0 +1,121 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.SendRequestDto;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.exception.SendDownloadLimitExceededException;
+import fr.se2eend.backend.exception.SendRevokedException;
+import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.AdminService;
+import fr.se2eend.backend.service.SendDownloadService;
+import fr.se2eend.backend.service.SendMetadataCache;
+import fr.se2eend.backend.service.SendService;
+import fr.se2eend.backend.storage.StorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Public lookups are served from the send metadata cache, while downloads keep enforcing
+ * revocation and limits against the database even when the cached entry is stale.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SendMetadataCacheTest {
+
+    @Autowired private SendService sendService;
+    @Autowired private SendDownloadService sendDownloadService;
+    @Autowired private AdminService adminService;
+    @Autowired private SendMetadataCache sendMetadataCache;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+    @Autowired private DeletedSendRepository deletedSendRepository;
+    @Autowired private StorageService storageService;
+
+    @AfterEach
+    void tearDown() {
+        fileRepository.deleteAll();
+        deletedSendRepository.deleteAll();
+        sendRepository.deleteAll();
+    }
+
+    private SendResponseDto sendWithFile(int maxDownloads) throws IOException {
+        SendResponseDto response = sendService.createSend(
+                new SendRequestDto(null, SendType.FILE, null, maxDownloads, false, null));
+        Send send = sendRepository.findById(response.id()).orElseThrow();
+        String storagePath = storageService.save(new ByteArrayInputStream("content".getBytes()), 7, "file.enc");
+        fileRepository.save(FileMetadata.builder()
+                .send(send)
+                .filename("file.enc")
+                .storagePath(storagePath)
+                .sizeBytes(7)
+                .build());
+        return response;
+    }
+
+    @Test
+    void repeatedLookup_isServedFromCache() throws IOException {
+        SendResponseDto send = sendWithFile(5);
+        long hitsBefore = (long) sendMetadataCache.metrics().get("hits");
+
+        sendService.findByAccessId(send.accessId());
+        sendService.findByAccessId(send.accessId());
+        sendService.findByAccessId(send.accessId());
+
+        assertEquals(hitsBefore + 2, (long) sendMetadataCache.metrics().get("hits"));
+    }
+
+    @Test
+    void download_updatesCachedCounter() throws IOException {
+        SendResponseDto send = sendWithFile(5);
+        sendService.findByAccessId(send.accessId());
+
+        sendDownloadService.downloadByAccessId(send.accessId(), null).stream().close();
+
+        assertEquals(1, sendService.findByAccessId(send.accessId()).downloadCount());
+        assertEquals(1, sendRepository.findById(send.id()).orElseThrow().getDownloadCount());
+    }
+
+    @Test
+    void revoke_evictsCachedEntry() throws IOException {
+        SendResponseDto send = sendWithFile(5);
+        assertFalse(sendService.findByAccessId(send.accessId()).revoked());
+
+        adminService.revokeSend(send.id());
+
+        assertTrue(sendService.findByAccessId(send.accessId()).revoked());
+        assertThrows(SendRevokedException.class, () -> sendDownloadService.downloadByAccessId(send.accessId(), null));
+    }
+
+    @Test
+    void staleCachedEntry_doesNotBypassRevocationOrLimit() throws IOException {
+        SendResponseDto send = sendWithFile(1);
+        sendService.findByAccessId(send.accessId());
+
+        // Changed behind the cache's back, as another instance would.
+        Send entity = sendRepository.findById(send.id()).orElseThrow();
+        entity.setRevoked(true);
+        sendRepository.save(entity);
+        assertThrows(SendRevokedException.class, () -> sendDownloadService.downloadByAccessId(send.accessId(), null));
+
+        SendResponseDto other = sendWithFile(1);
+        sendService.findByAccessId(other.accessId());
+        Send exhausted = sendRepository.findById(other.id()).orElseThrow();
+        exhausted.setDownloadCount(1);
+        sendRepository.save(exhausted);
+        assertThrows(SendDownloadLimitExceededException.class,
+                () -> sendDownloadService.downloadByAccessId(other.accessId(), null));
+        assertEquals(1, sendRepository.findById(other.id()).orElseThrow().getDownloadCount());
+    }
+}
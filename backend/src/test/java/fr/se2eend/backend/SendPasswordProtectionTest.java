@@ -2,12 +2,14 @@ package fr.se2eend.backend;
 
 import fr.se2eend.backend.dto.SendRequestDto;
 import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.exception.PasswordVerificationBusyException;
 import fr.se2eend.backend.exception.SendPasswordInvalidException;
 import fr.se2eend.backend.model.FileMetadata;
 import fr.se2eend.backend.model.Send;
 import fr.se2eend.backend.model.enums.SendType;
 import fr.se2eend.backend.repository.FileRepository;
 import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.service.PasswordVerifier;
 import fr.se2eend.backend.service.SendDownloadService;
 import fr.se2eend.backend.service.SendService;
 import fr.se2eend.backend.storage.StorageService;
@@ -16,10 +18,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -225,4 +234,88 @@ class SendPasswordProtectionTest {
         assertFalse(send.isPasswordProtected());
         assertNull(send.getPasswordHash());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPasswordProtectedSend_downloadTokenReplacesPassword() throws IOException {
+        // Given: Two password-protected Sends with a file
+        String password = "token-password";
+        SendResponseDto response = createProtectedSendWithFile(password);
+        SendResponseDto other = createProtectedSendWithFile(password);
+
+        // When: Download with the password
+        var first = sendDownloadService.downloadByAccessId(response.accessId(), password);
+        first.stream().close();
+
+        // Then: A token is returned, accepted instead of the password, for this Send only
+        String token = first.downloadToken();
+        assertNotNull(token);
+        var second = sendDownloadService.downloadByAccessId(response.accessId(), null, token);
+        second.stream().close();
+        assertNull(second.downloadToken());
+
+        assertThrows(SendPasswordInvalidException.class,
+                () -> sendDownloadService.downloadByAccessId(other.accessId(), null, token));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(SendPasswordInvalidException.class,
+                () -> sendDownloadService.downloadByAccessId(response.accessId(), null, tampered));
+    }
+
+    @Test
+    void testPasswordVerifier_shedsWhenSaturated() throws Exception {
+        // Given: A verifier with one thread and a one-slot queue, whose thread is stuck
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        PasswordVerifier verifier = new PasswordVerifier(slowEncoder, 1, 1, Duration.ofSeconds(10));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> running = callers.submit(() -> verifier.matches("a", "a"));
+            Future<Boolean> queued = callers.submit(() -> verifier.matches("b", "b"));
+            while ((int) verifier.metrics().get("queued") < 1) {
+                Thread.sleep(5);
+            }
+
+            // When/Then: One more check is refused immediately
+            assertThrows(PasswordVerificationBusyException.class, () -> verifier.matches("c", "c"));
+
+            release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    private SendResponseDto createProtectedSendWithFile(String password) throws IOException {
+        SendResponseDto response = sendService.createSend(
+                new SendRequestDto(null, SendType.FILE, null, 5, true, password));
+        Send send = sendRepository.findById(response.id()).orElseThrow();
+        String storagePath = storageService.save(
+                new ByteArrayInputStream("content".getBytes()),
+                "content".length(),
+                "file.enc"
+        );
+        fileRepository.save(FileMetadata.builder()
+                .send(send)
+                .filename("file.enc")
+                .storagePath(storagePath)
+                .sizeBytes("content".length())
+                .build());
+        return response;
+    }
+}
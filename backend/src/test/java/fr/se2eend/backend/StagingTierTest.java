@@ -0,0 +1,196 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.SendRequestDto;
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.exception.StorageBusyException;
+import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.model.UploadSession;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.repository.DeletedSendRepository;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.repository.UploadChunkRepository;
+import fr.se2eend.backend.repository.UploadSessionRepository;
+import fr.se2eend.backend.service.ChunkedUploadService;
+import fr.se2eend.backend.service.SendDownloadService;
+import fr.se2eend.backend.service.SendService;
+import fr.se2eend.backend.service.StagingPromotionService;
+import fr.se2eend.backend.storage.InstrumentedStorageService;
+import fr.se2eend.backend.storage.StagingStorage;
+import fr.se2eend.backend.storage.StorageService;
+import fr.se2eend.backend.support.WithMockJwtUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With the staging tier on, chunks and the assembled file land on local disk and are downloadable
+ * at once; promotion repoints the file to the provider, the sweep frees the staged copy, and chunks
+ * are refused while staging is full.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockJwtUser
+class StagingTierTest {
+
+    private static final int CHUNK = 16 * 1024;
+
+    @DynamicPropertySource
+    static void stagingProperties(DynamicPropertyRegistry registry) throws IOException {
+        Path root = Files.createTempDirectory("se2eend-staging-test-");
+        registry.add("storage.base-dir", () -> root.resolve("provider").toString());
+        registry.add("storage.staging.enabled", () -> "true");
+        registry.add("storage.staging.dir", () -> root.resolve("staging").toString());
+        registry.add("storage.staging.max-size", () -> "64KB");
+        registry.add("storage.staging.retain-after-promotion", () -> "PT0S");
+        registry.add("cache.sends.ttl", () -> "PT0S");
+        // Driven by the test instead.
+        registry.add("storage.staging.promotion-interval", () -> "PT1H");
+        registry.add("storage.staging.sweep-interval", () -> "PT1H");
+    }
+
+    @Autowired private SendService sendService;
+    @Autowired private ChunkedUploadService chunkedUploadService;
+    @Autowired private SendDownloadService sendDownloadService;
+    @Autowired private StagingPromotionService stagingPromotionService;
+    @Autowired private StorageService storageService;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+    @Autowired private UploadSessionRepository uploadSessionRepository;
+    @Autowired private UploadChunkRepository uploadChunkRepository;
+    @Autowired private DeletedSendRepository deletedSendRepository;
+
+    @AfterEach
+    void tearDown() {
+        uploadChunkRepository.deleteAll();
+        uploadSessionRepository.deleteAll();
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+        deletedSendRepository.deleteAll();
+    }
+
+    private StagingStorage staging() {
+        return (StagingStorage) ((InstrumentedStorageService) storageService).getDelegate();
+    }
+
+    private static byte[] chunk(int index) {
+        byte[] bytes = new byte[CHUNK];
+        Arrays.fill(bytes, (byte) index);
+        return bytes;
+    }
+
+    private byte[] download(String accessId) throws IOException {
+        try (InputStream stream = sendDownloadService.downloadByAccessId(accessId, null).stream()) {
+            return stream.readAllBytes();
+        }
+    }
+
+    @Test
+    void upload_isServedFromStaging_thenPromoted() throws Exception {
+        SendResponseDto send = sendService.createSend(new SendRequestDto(null, SendType.FILE, null, 5, false, null));
+        UploadSession session = chunkedUploadService.initUpload(send.id(), "enc.bin");
+        chunkedUploadService.saveChunk(session.getId(), 0, new ByteArrayInputStream(chunk(0)), CHUNK);
+        chunkedUploadService.saveChunk(session.getId(), 1, new ByteArrayInputStream(chunk(1)), CHUNK);
+        chunkedUploadService.completeUpload(session.getId(), 2, CHUNK);
+
+        FileMetadata file = fileRepository.findBySendId(send.id()).get(0);
+        assertTrue(StagingStorage.isStaged(file.getStoragePath()), file.getStoragePath());
+        assertEquals(2L * CHUNK, staging().usedBytes());
+        byte[] expected = new byte[2 * CHUNK];
+        System.arraycopy(chunk(0), 0, expected, 0, CHUNK);
+        System.arraycopy(chunk(1), 0, expected, CHUNK, CHUNK);
+        assertArrayEquals(expected, download(send.accessId()));
+
+        assertEquals(1, stagingPromotionService.promotePending());
+        String promoted = fileRepository.findBySendId(send.id()).get(0).getStoragePath();
+        assertFalse(StagingStorage.isStaged(promoted));
+        assertArrayEquals(expected, download(send.accessId()));
+
+        assertEquals(1, stagingPromotionService.sweep());
+        assertEquals(0, staging().usedBytes());
+        assertArrayEquals(expected, download(send.accessId()));
+        assertEquals(0, stagingPromotionService.promotePending());
+    }
+
+    @Test
+    void chunks_areRefusedWhileStagingIsFull() throws Exception {
+        SendResponseDto send = sendService.createSend(new SendRequestDto(null, SendType.FILE, null, 5, false, null));
+        UploadSession session = chunkedUploadService.initUpload(send.id(), "enc.bin");
+        for (int i = 0; i < 4; i++) {
+            chunkedUploadService.saveChunk(session.getId(), i, new ByteArrayInputStream(chunk(i)), CHUNK);
+        }
+
+        assertThrows(StorageBusyException.class, () ->
+                chunkedUploadService.saveChunk(session.getId(), 4, new ByteArrayInputStream(chunk(4)), CHUNK));
+
+        // No room to assemble in staging either: the file goes straight to the provider.
+        chunkedUploadService.completeUpload(session.getId(), 4, CHUNK);
+        FileMetadata file = fileRepository.findBySendId(send.id()).get(0);
+        assertFalse(StagingStorage.isStaged(file.getStoragePath()), file.getStoragePath());
+        assertEquals(0, staging().usedBytes());
+        assertEquals(4 * CHUNK, download(send.accessId()).length);
+    }
+
+    @Test
+    void recount_keepsTheReservationsOfWritesInFlight() throws Exception {
+        StagingStorage storage = new StagingStorage(staging().getBackend(),
+                Files.createTempDirectory("se2eend-staging-recount-"), 4L * CHUNK);
+        CountDownLatch halfWritten = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        InputStream rest = new InputStream() {
+            private final InputStream bytes = new ByteArrayInputStream(new byte[CHUNK / 2]);
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                halfWritten.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return bytes.read(buffer, offset, length);
+            }
+        };
+        CompletableFuture<String> save = CompletableFuture.supplyAsync(() -> {
+            try {
+                return storage.save(new SequenceInputStream(new ByteArrayInputStream(new byte[CHUNK / 2]), rest),
+                        CHUNK, "chunks/session/0");
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(halfWritten.await(10, TimeUnit.SECONDS));
+
+        storage.recount();
+        assertEquals(CHUNK, storage.usedBytes());
+
+        resume.countDown();
+        assertTrue(StagingStorage.isStaged(save.get(10, TimeUnit.SECONDS)));
+        assertEquals(CHUNK, storage.usedBytes());
+        storage.recount();
+        assertEquals(CHUNK, storage.usedBytes());
+    }
+}
@@ -0,0 +1,35 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.storage.InstrumentedStorageService;
+import fr.se2eend.backend.storage.LocalFileSystemStorage;
+import fr.se2eend.backend.storage.PackFileStorage;
+import fr.se2eend.backend.storage.StagingStorage;
+import fr.se2eend.backend.storage.StorageLayers;
+import fr.se2eend.backend.storage.StorageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The provider is found behind both the instrumentation and the staging tier.
+ */
+class StorageLayersTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsTheProviderBehindInstrumentationAndStaging() {
+        LocalFileSystemStorage local = new LocalFileSystemStorage(dir.resolve("files"), 0);
+        StagingStorage staging = new StagingStorage(local, dir.resolve("staging"), 1024);
+        StorageService storage = new InstrumentedStorageService(staging, "staging+local");
+
+        assertThat(StorageLayers.find(storage, StagingStorage.class)).containsSame(staging);
+        assertThat(StorageLayers.find(storage, LocalFileSystemStorage.class)).containsSame(local);
+        assertThat(StorageLayers.find(storage, PackFileStorage.class)).isEmpty();
+        assertThat(StorageLayers.find(local, StagingStorage.class)).isEmpty();
+    }
+}
@@ -0,0 +1,316 @@
+package fr.se2eend.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.se2eend.backend.repository.FileRepository;
+import fr.se2eend.backend.repository.InstanceSettingRepository;
+import fr.se2eend.backend.repository.SendRepository;
+import fr.se2eend.backend.repository.UploadChunkRepository;
+import fr.se2eend.backend.repository.UploadSessionRepository;
+import fr.se2eend.backend.service.InstanceSettingsService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads and downloads go through the backend at constant memory, whatever the payload size.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pmemory-tests}, which forks the
+ * test JVM with a small {@code -Xmx}. The payload size can be raised with
+ * {@code -Dmemory.payload.bytes=...} (default 3 GiB). Each transfer runs under a JFR recording and
+ * must keep the heap retained after GC within {@link #MAX_RETAINED_BYTES} of its starting point
+ * and allocate less than {@link #MAX_ALLOCATED_PER_BYTE} bytes per transferred byte, so that
+ * buffering a body in memory fails here instead of as an OOM in production.
+ * <p>
+ * Real HTTP on a random port: MockMvc buffers response bodies, which would defeat the purpose.
+ */
+@Tag("memory")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class StreamingMemoryTest {
+
+    private static final String OWNER_SUB = "11111111-1111-1111-1111-111111111111";
+    private static final String MAX_UPLOAD_KEY = "max_upload_size_bytes";
+
+    private static final long PAYLOAD_BYTES = Long.getLong("memory.payload.bytes", 3L * 1024 * 1024 * 1024);
+    private static final int CHUNK_BYTES = Integer.getInteger("memory.chunk.bytes", 256 * 1024 * 1024);
+    /** Stays under {@code spring.servlet.multipart.max-file-size}. */
+    private static final long MULTIPART_BYTES = 96L * 1024 * 1024;
+
+    private static final long MAX_RETAINED_BYTES = 32L * 1024 * 1024;
+    private static final double MAX_ALLOCATED_PER_BYTE = 0.25;
+
+    private static final byte[] PATTERN = new byte[64 * 1024];
+    private static final Path STORAGE_DIR;
+
+    static {
+        new Random(42).nextBytes(PATTERN);
+        try {
+            STORAGE_DIR = Files.createTempDirectory("se2eend-memory-");
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("storage.base-dir", STORAGE_DIR::toString);
+    }
+
+    @LocalServerPort private int port;
+    @Autowired private SendRepository sendRepository;
+    @Autowired private FileRepository fileRepository;
+    @Autowired private UploadSessionRepository uploadSessionRepository;
+    @Autowired private UploadChunkRepository uploadChunkRepository;
+    @Autowired private InstanceSettingRepository instanceSettingRepository;
+    @Autowired private InstanceSettingsService instanceSettingsService;
+
+    @MockitoBean private JwtDecoder jwtDecoder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        // The default 2 GiB upload limit would reject multi-GB payloads.
+        instanceSettingsService.set(MAX_UPLOAD_KEY, "0");
+        when(jwtDecoder.decode(anyString())).thenAnswer(invocation -> Jwt.withTokenValue(invocation.getArgument(0))
+                .header("alg", "none")
+                .subject(OWNER_SUB)
+                .claim("preferred_username", "memory")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadChunkRepository.deleteAll();
+        uploadSessionRepository.deleteAll();
+        fileRepository.deleteAll();
+        sendRepository.deleteAll();
+        instanceSettingRepository.deleteById(MAX_UPLOAD_KEY);
+        instanceSettingsService.reload();
+    }
+
+    @AfterAll
+    static void deleteStorage() throws IOException {
+        FileSystemUtils.deleteRecursively(STORAGE_DIR);
+    }
+
+    @Test
+    void chunkedUpload_thenDownloads_stayAtConstantMemory() throws Exception {
+        JsonNode send = createSend();
+        long expectedCrc = crcOfPayload(PAYLOAD_BYTES);
+        String[] fileId = new String[1];
+
+        assertConstantMemory("chunked upload", PAYLOAD_BYTES, () -> {
+            String sessionId = json("POST", "/api/v1/files/chunked/init",
+                    "{\"sendId\":\"" + send.get("id").asText() + "\",\"filename\":\"payload.bin\"}")
+                    .get("sessionId").asText();
+            int index = 0;
+            for (long offset = 0; offset < PAYLOAD_BYTES; offset += CHUNK_BYTES) {
+                long length = Math.min(CHUNK_BYTES, PAYLOAD_BYTES - offset);
+                HttpURLConnection connection = open("PUT", "/api/v1/files/chunked/" + sessionId + "/chunk/" + index++);
+                connection.setRequestProperty("Content-Type", "application/octet-stream");
+                connection.setFixedLengthStreamingMode(length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    writePayload(out, offset, length);
+                }
+                assertThat(connection.getResponseCode()).isEqualTo(204);
+            }
+            fileId[0] = json("POST", "/api/v1/files/chunked/" + sessionId + "/complete",
+                    "{\"totalChunks\":" + index + ",\"chunkSize\":" + CHUNK_BYTES + "}").get("id").asText();
+        });
+
+        assertConstantMemory("send download", PAYLOAD_BYTES, () ->
+                assertDownload("/api/v1/sends/" + send.get("accessId").asText() + "/download", PAYLOAD_BYTES, expectedCrc));
+
+        assertConstantMemory("file download", PAYLOAD_BYTES, () ->
+                assertDownload("/api/v1/files/" + fileId[0], PAYLOAD_BYTES, expectedCrc));
+    }
+
+    @Test
+    void multipartUpload_staysAtConstantMemory() throws Exception {
+        JsonNode send = createSend();
+        String boundary = "memory-test-boundary";
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"payload.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        assertConstantMemory("multipart upload", MULTIPART_BYTES, () -> {
+            HttpURLConnection connection = open("POST", "/api/v1/files?sendId=" + send.get("id").asText());
+            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+            connection.setFixedLengthStreamingMode(head.length + MULTIPART_BYTES + tail.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(head);
+                writePayload(out, 0, MULTIPART_BYTES);
+                out.write(tail);
+            }
+            assertThat(connection.getResponseCode()).isEqualTo(201);
+        });
+
+        String fileId = fileRepository.findAll().get(0).getId().toString();
+        assertDownload("/api/v1/files/" + fileId, MULTIPART_BYTES, crcOfPayload(MULTIPART_BYTES));
+    }
+
+    // -------------------------------------------------------------------------
+    // Measurement
+    // -------------------------------------------------------------------------
+
+    private interface Transfer {
+        void run() throws Exception;
+    }
+
+    private void assertConstantMemory(String label, long transferredBytes, Transfer transfer) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+
+        Path dump = Files.createTempFile("memory-", ".jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+            recording.enable("jdk.GCHeapSummary");
+            recording.enable("jdk.ObjectAllocationSample");
+            recording.start();
+            transfer.run();
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            long retainedPeak = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("jdk.GCHeapSummary"))
+                    .filter(e -> "After GC".equals(e.getString("when")))
+                    .mapToLong(e -> e.getLong("heapUsed"))
+                    .max()
+                    .orElse(baseline);
+            // Event classes loaded mid-recording get instrumented by JFR itself, in allocation bursts
+            // that have nothing to do with the transfer.
+            long allocated = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("jdk.ObjectAllocationSample"))
+                    .filter(e -> e.getStackTrace() == null || e.getStackTrace().getFrames().stream()
+                            .noneMatch(frame -> frame.getMethod().getType().getName().startsWith("jdk.jfr.internal.")))
+                    .mapToLong(e -> e.getLong("weight"))
+                    .sum();
+
+            System.out.printf("%s: %d MB transferred, retained heap %+d MB after GC, %.3f bytes allocated per byte, max heap %d MB%n",
+                    label, transferredBytes >> 20, (retainedPeak - baseline) >> 20,
+                    (double) allocated / transferredBytes, memory.getHeapMemoryUsage().getMax() >> 20);
+
+            assertThat(retainedPeak - baseline)
+                    .as("%s: heap retained after GC grew with the payload", label)
+                    .isLessThan(MAX_RETAINED_BYTES);
+            assertThat((double) allocated / transferredBytes)
+                    .as("%s: allocation rate proportional to the payload", label)
+                    .isLessThan(MAX_ALLOCATED_PER_BYTE);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // HTTP helpers
+    // -------------------------------------------------------------------------
+
+    private JsonNode createSend() throws IOException {
+        return json("POST", "/api/v1/sends", "{\"name\":\"memory\",\"type\":\"FILE\",\"maxDownloads\":5}");
+    }
+
+    private HttpURLConnection open(String method, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + port + path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Authorization", "Bearer memory-test");
+        connection.setDoOutput(!method.equals("GET"));
+        return connection;
+    }
+
+    private JsonNode json(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = open(method, path);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(connection.getResponseCode()).as("%s %s", method, path).isBetween(200, 299);
+        try (InputStream in = connection.getInputStream()) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    private void assertDownload(String path, long expectedBytes, long expectedCrc) throws IOException {
+        HttpURLConnection connection = open("GET", path);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        CRC32 crc = new CRC32();
+        long total = 0;
+        byte[] buffer = new byte[PATTERN.length];
+        try (InputStream in = connection.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                total += read;
+            }
+        }
+        assertThat(total).isEqualTo(expectedBytes);
+        assertThat(crc.getValue()).isEqualTo(expectedCrc);
+    }
+
+    /** Writes bytes {@code [offset, offset + length)} of the synthetic payload (PATTERN repeated). */
+    private static void writePayload(OutputStream out, long offset, long length) throws IOException {
+        long end = offset + length;
+        while (offset < end) {
+            int start = (int) (offset % PATTERN.length);
+            int count = (int) Math.min(PATTERN.length - start, end - offset);
+            out.write(PATTERN, start, count);
+            offset += count;
+        }
+    }
+
+    private static long crcOfPayload(long length) throws IOException {
+        CRC32 crc = new CRC32();
+        writePayload(new OutputStream() {
+            @Override
+            public void write(int b) {
+                crc.update(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                crc.update(b, off, len);
+            }
+        }, 0, length);
+        return crc.getValue();
+    }
+}
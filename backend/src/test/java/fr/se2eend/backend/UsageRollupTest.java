@@ -0,0 +1,89 @@
+package fr.se2eend.backend;
+
+import fr.se2eend.backend.dto.PagedResponse;
+import fr.se2eend.backend.dto.UsageHourDto;
+import fr.se2eend.backend.model.enums.DeleteReason;
+import fr.se2eend.backend.repository.UsageHourRepository;
+import fr.se2eend.backend.service.AdminService;
+import fr.se2eend.backend.service.UsageAggregator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Usage recorded in memory reaches the hourly rollup on flush, and successive flushes add up.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UsageRollupTest {
+
+    /** Far from the shared aggregator's hours, and from an hour boundary. */
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 14, 10, 30);
+
+    @Autowired private UsageHourRepository usageHourRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private AdminService adminService;
+
+    private UsageAggregator usageAggregator;
+
+    @BeforeEach
+    void setUp() {
+        ZoneId zone = ZoneId.systemDefault();
+        usageAggregator = new UsageAggregator(usageHourRepository, transactionTemplate,
+                Clock.fixed(NOW.atZone(zone).toInstant(), zone));
+        usageHourRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        usageHourRepository.deleteAll();
+    }
+
+    @Test
+    void flushes_addUpInTheCurrentHour() {
+        usageAggregator.sendCreated();
+        usageAggregator.bytesReceived(1_000);
+        usageAggregator.bytesReceived(500);
+        usageAggregator.uploadCompleted();
+        usageAggregator.downloaded(1_500);
+        usageAggregator.flush();
+
+        usageAggregator.downloaded(1_500);
+        usageAggregator.deleted(DeleteReason.EXHAUSTED);
+        usageAggregator.flush();
+
+        PagedResponse<UsageHourDto> usage = adminService.getUsage(NOW.minusDays(1), NOW.plusHours(1), 0, 24);
+        assertEquals(1, usage.totalElements());
+        UsageHourDto hour = usage.content().get(0);
+        assertEquals(NOW.withMinute(0), hour.hourStart());
+        assertEquals(1, hour.sendsCreated());
+        assertEquals(1, hour.uploadsCompleted());
+        assertEquals(1_500, hour.bytesIn());
+        assertEquals(2, hour.downloads());
+        assertEquals(3_000, hour.bytesOut());
+        assertEquals(1L, hour.deleted().get(DeleteReason.EXHAUSTED));
+        assertEquals(0L, hour.deleted().get(DeleteReason.USER));
+    }
+
+    @Test
+    void emptyFlush_writesNothing() {
+        usageAggregator.flush();
+        assertEquals(0, usageHourRepository.count());
+    }
+
+    @Test
+    void oversizedPage_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> adminService.getUsage(NOW.minusDays(1), NOW, 0, 101));
+    }
+}
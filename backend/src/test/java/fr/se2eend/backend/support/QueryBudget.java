@@ -0,0 +1,66 @@
+package fr.se2eend.backend.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL work done by a block of code through Hibernate statistics (enabled in the test
+ * profile), so tests can fail when an endpoint starts issuing more statements than it should.
+ * <p>
+ * Statements are JDBC prepared statements. Rows are the rows returned by HQL/criteria queries
+ * plus the entities loaded (by those queries, or by follow-up selects): an upper bound of what was
+ * read, which grows with the data touched rather than with the page asked for when a query is
+ * unbounded or an association is loaded row by row.
+ */
+public final class QueryBudget {
+
+    private final Statistics statistics;
+
+    private QueryBudget(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public static QueryBudget of(EntityManagerFactory entityManagerFactory) {
+        return new QueryBudget(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    /**
+     * Runs {@code work} and fails if it used more than {@code maxStatements} statements or
+     * fetched more than {@code maxRows} rows.
+     */
+    public void assertWithin(String label, long maxStatements, long maxRows, Work work) throws Exception {
+        statistics.clear();
+        work.run();
+        long statements = statistics.getPrepareStatementCount();
+        long rows = rowsFetched();
+        assertTrue(statements <= maxStatements,
+                label + ": " + statements + " SQL statements, budget is " + maxStatements + describe());
+        assertTrue(rows <= maxRows,
+                label + ": " + rows + " rows fetched, budget is " + maxRows + describe());
+    }
+
+    private long rowsFetched() {
+        long rows = statistics.getEntityLoadCount();
+        for (String query : statistics.getQueries()) {
+            rows += statistics.getQueryStatistics(query).getExecutionRowCount();
+        }
+        return rows;
+    }
+
+    private String describe() {
+        StringBuilder details = new StringBuilder("\nentities loaded: ").append(statistics.getEntityLoadCount());
+        for (String query : statistics.getQueries()) {
+            details.append("\n  ").append(statistics.getQueryStatistics(query).getExecutionCount())
+                    .append("x ").append(query.strip().replaceAll("\\s+", " "));
+        }
+        return details.toString();
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+}
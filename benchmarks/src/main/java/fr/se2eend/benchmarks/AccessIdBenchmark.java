@@ -0,0 +1,25 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.backend.service.SendService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessIdBenchmark {
+
+    @Benchmark
+    public String generateAccessId() {
+        return SendService.generateAccessId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateAccessIdContended() {
+        return SendService.generateAccessId();
+    }
+}
@@ -0,0 +1,56 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.backend.config.CachingJwtDecoder;
+import fr.se2eend.backend.config.KeycloakJwtAuthenticationConverter;
+import fr.se2eend.benchmarks.load.LocalTokenIssuer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of bearer token authentication: decode and validate the JWT, then convert it
+ * to an {@code Authentication}, as the resource server filter does for every API call.
+ * {@code uncached} verifies the RS256 signature each time (the behavior before the token cache);
+ * {@code cached} goes through {@link CachingJwtDecoder} as wired in {@code SecurityConfig}, with the
+ * same token presented repeatedly, as during a chunked upload. {@code convert} isolates the
+ * conversion of an already decoded token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    @Param({"uncached", "cached"})
+    public String decoder;
+
+    private JwtDecoder jwtDecoder;
+    private final KeycloakJwtAuthenticationConverter converter = new KeycloakJwtAuthenticationConverter();
+    private String token;
+    private Jwt decoded;
+
+    @Setup
+    public void setUp() {
+        LocalTokenIssuer issuer = new LocalTokenIssuer();
+        token = issuer.mint(UUID.randomUUID(), "bench", List.of("user", "offline_access", "uma_authorization"));
+        jwtDecoder = "cached".equals(decoder) ? new CachingJwtDecoder(issuer.decoder(), 10_000) : issuer.decoder();
+        decoded = jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken authenticate() {
+        return converter.convert(jwtDecoder.decode(token));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(decoded);
+    }
+}
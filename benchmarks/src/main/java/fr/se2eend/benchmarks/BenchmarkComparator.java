@@ -0,0 +1,79 @@
+package fr.se2eend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark (same name and parameters).
+ */
+final class BenchmarkComparator {
+
+    private static final double DEFAULT_MAX_REGRESSION_PERCENT = 10.0;
+
+    private BenchmarkComparator() {}
+
+    static int run(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: compare <baseline.json> <candidate.json> [max-regression-%]");
+            return 2;
+        }
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_MAX_REGRESSION_PERCENT;
+
+        Map<String, Score> baseline = load(Path.of(args[0]));
+        Map<String, Score> candidate = load(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14.3f %-8s (new)%n", entry.getKey(), after.value(), after.unit());
+                continue;
+            }
+            // Positive = slower/worse, whatever the mode.
+            double change = (after.value() - before.value()) / before.value() * 100.0;
+            double worsening = after.higherIsBetter() ? -change : change;
+            boolean regressed = worsening > maxRegression;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f -> %14.3f %-8s %+7.1f%%%s%n",
+                    entry.getKey(), before.value(), after.value(), after.unit(), change,
+                    regressed ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("%d regression(s) above %.1f%%%n", regressions, maxRegression);
+        return regressions == 0 ? 0 : 1;
+    }
+
+    private static Map<String, Score> load(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringJoiner key = new StringJoiner(",", result.get("benchmark").asText() + "(", ")");
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.add(param.getKey() + "=" + param.getValue().asText());
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            scores.put(key.toString(), new Score(
+                    metric.get("score").asDouble(),
+                    metric.get("scoreUnit").asText(),
+                    "thrpt".equals(result.get("mode").asText())
+            ));
+        }
+        return scores;
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {}
+}
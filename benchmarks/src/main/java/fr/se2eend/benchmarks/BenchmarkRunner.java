@@ -0,0 +1,52 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.benchmarks.load.LoadTestRunner;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ * <ul>
+ *   <li>{@code java -jar benchmarks.jar [jmh options]} runs the benchmarks. Unless {@code -rf}/{@code -rff}
+ *   are given, results are written as JSON to {@code jmh-result.json} so that runs from different
+ *   commits can be diffed.</li>
+ *   <li>{@code java -jar benchmarks.jar compare <baseline.json> <candidate.json> [max-regression-%]}
+ *   prints the per-benchmark delta and exits with status 1 if any benchmark regressed.</li>
+ *   <li>{@code java -jar benchmarks.jar load [scenario.yml] [--report=load-report.json]} boots the
+ *   backend against local stand-ins and runs an end-to-end load scenario, see {@link LoadTestRunner}.</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            System.exit(BenchmarkComparator.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("load")) {
+            System.exit(LoadTestRunner.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
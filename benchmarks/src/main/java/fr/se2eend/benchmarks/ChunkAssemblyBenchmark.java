@@ -0,0 +1,66 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.backend.storage.LocalFileSystemStorage;
+import fr.se2eend.backend.storage.StorageProperties;
+import fr.se2eend.backend.storage.StorageService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk assembly as performed by {@code ChunkedUploadService.completeUpload}: the stored chunks
+ * are concatenated into the final object through {@link StorageService#concatenate}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkAssemblyBenchmark {
+
+    /** Ciphertext chunk size: 25 MiB of plaintext + 28 bytes of IV and GCM tag, as sent by the SPA. */
+    @Param({"26214428"})
+    public int chunkBytes;
+
+    @Param({"4", "16"})
+    public int chunkCount;
+
+    private Path baseDir;
+    private StorageService storage;
+    private List<String> chunkPaths;
+    private long totalSize;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("se2eend-bench-");
+        StorageProperties props = new StorageProperties();
+        props.setBaseDir(baseDir.toString());
+        storage = new LocalFileSystemStorage(props);
+
+        byte[] chunk = new byte[chunkBytes];
+        ThreadLocalRandom.current().nextBytes(chunk);
+        chunkPaths = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunkPaths.add(storage.save(new ByteArrayInputStream(chunk), chunkBytes, "chunks/session/" + i));
+        }
+        totalSize = (long) chunkBytes * chunkCount;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(baseDir);
+    }
+
+    @Benchmark
+    public String assemble() throws IOException {
+        return storage.concatenate(chunkPaths, totalSize, "assembled");
+    }
+}
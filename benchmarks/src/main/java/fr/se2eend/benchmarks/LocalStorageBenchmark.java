@@ -0,0 +1,72 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.backend.storage.LocalFileSystemStorage;
+import fr.se2eend.backend.storage.StorageProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LocalFileSystemStorage#save} and {@link LocalFileSystemStorage#read} for several object
+ * sizes, with the source/sink handing over data in {@code bufferBytes} slices (the size of the
+ * reads Tomcat performs on the request body, or of the writes to the response).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalStorageBenchmark {
+
+    @Param({"4096", "1048576", "26214400"})
+    public int payloadBytes;
+
+    @Param({"8192", "65536", "1048576"})
+    public int bufferBytes;
+
+    private Path baseDir;
+    private LocalFileSystemStorage storage;
+    private byte[] payload;
+    private byte[] readBuffer;
+    private String existingPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("se2eend-bench-");
+        StorageProperties props = new StorageProperties();
+        props.setBaseDir(baseDir.toString());
+        storage = new LocalFileSystemStorage(props);
+
+        payload = new byte[payloadBytes];
+        ThreadLocalRandom.current().nextBytes(payload);
+        readBuffer = new byte[bufferBytes];
+        existingPath = storage.save(new SlicedInputStream(payload, bufferBytes), payloadBytes, "existing");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(baseDir);
+    }
+
+    @Benchmark
+    public String save() throws IOException {
+        return storage.save(new SlicedInputStream(payload, bufferBytes), payloadBytes, "object");
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws IOException {
+        try (InputStream in = storage.read(existingPath)) {
+            int n;
+            while ((n = in.read(readBuffer)) != -1) {
+                blackhole.consume(n);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.backend.storage.S3FileStorage;
+import fr.se2eend.backend.storage.StorageProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate {@link S3FileStorage#save} throughput with objects spread over 1 to 8 S3 targets, each a
+ * local {@link S3StandIn} with a fixed request capacity (by default 2 requests of 100 ms at a time,
+ * i.e. 20 PUTs/s). With enough concurrent uploads, throughput grows with the number of targets until
+ * the client side (request signing, payload checksums, HTTP) becomes the limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(32)
+public class S3ShardingBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int targets;
+
+    /** Requests each stand-in serves at a time. */
+    @Param({"2"})
+    public int workersPerTarget;
+
+    /** Time each stand-in spends on a request. */
+    @Param({"100"})
+    public long serviceMillis;
+
+    @Param({"16384"})
+    public int payloadBytes;
+
+    private final List<S3StandIn> standIns = new ArrayList<>();
+    private S3FileStorage storage;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StorageProperties props = new StorageProperties();
+        props.setProvider("s3");
+        StorageProperties.S3Properties s3 = props.getS3();
+        s3.setRegion("us-east-1");
+        s3.setAccessKey("bench");
+        s3.setSecretKey("bench");
+        s3.setPathStyleAccess(true);
+        for (int i = 0; i < targets; i++) {
+            S3StandIn standIn = new S3StandIn(workersPerTarget, serviceMillis);
+            standIns.add(standIn);
+            StorageProperties.S3Target target = new StorageProperties.S3Target();
+            target.setName("t" + i);
+            target.setBucket("bench");
+            target.setEndpoint(standIn.endpoint());
+            s3.getTargets().add(target);
+        }
+        storage = new S3FileStorage(props);
+
+        payload = new byte[payloadBytes];
+        ThreadLocalRandom.current().nextBytes(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        int objects = standIns.stream().mapToInt(S3StandIn::objectCount).sum();
+        System.out.println();
+        System.out.println("Objects per target: " + standIns.stream().map(s -> s.objectCount() * 100 / Math.max(objects, 1) + "%").toList());
+        standIns.forEach(S3StandIn::close);
+        standIns.clear();
+    }
+
+    @Benchmark
+    public String save() throws IOException {
+        return storage.save(new ByteArrayInputStream(payload), payloadBytes, "chunks/" + UUID.randomUUID() + "/0");
+    }
+}
@@ -0,0 +1,94 @@
+package fr.se2eend.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A minimal path-style S3 endpoint on the loopback interface, standing in for one MinIO/Ceph node or
+ * one bucket partition. It serves at most {@code workers} requests at a time and holds each one for
+ * {@code serviceMillis}, so a single instance saturates at {@code workers * 1000 / serviceMillis}
+ * requests per second, like a backend with a per-node or per-prefix request limit.
+ * <p>
+ * PUT stores the body size, HEAD returns it, DELETE forgets it; GET is not supported. Request
+ * signatures are ignored.
+ */
+final class S3StandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+    S3StandIn(int workers, long serviceMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        executor = Executors.newFixedThreadPool(workers);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                handle(exchange, serviceMillis);
+            }
+        });
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int objectCount() {
+        return sizes.size();
+    }
+
+    private void handle(HttpExchange exchange, long serviceMillis) throws IOException {
+        String key = exchange.getRequestURI().getPath();
+        long received = 0;
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] buffer = new byte[16384];
+            for (int n; (n = body.read(buffer)) != -1; ) {
+                received += n;
+            }
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(serviceMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                sizes.put(key, received);
+                exchange.getResponseHeaders().add("ETag", "\"" + Long.toHexString(received) + "\"");
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "HEAD" -> {
+                Long size = sizes.get(key);
+                if (size == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    exchange.getResponseHeaders().add("Content-Length", Long.toString(size));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+            }
+            case "DELETE" -> {
+                sizes.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> exchange.sendResponseHeaders(501, -1);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
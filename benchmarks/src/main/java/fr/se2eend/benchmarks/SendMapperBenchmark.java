@@ -0,0 +1,54 @@
+package fr.se2eend.benchmarks;
+
+import fr.se2eend.backend.dto.SendResponseDto;
+import fr.se2eend.backend.model.FileMetadata;
+import fr.se2eend.backend.model.Send;
+import fr.se2eend.backend.model.enums.SendType;
+import fr.se2eend.backend.service.mapper.SendMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendMapperBenchmark {
+
+    private final SendMapper mapper = new SendMapper();
+    private Send send;
+
+    @Setup
+    public void setUp() {
+        send = Send.builder()
+                .id(UUID.randomUUID())
+                .accessId("AAAAAAAAAAAAAAAAAAAAAA")
+                .ownerId(UUID.randomUUID())
+                .ownerName("Jane Doe")
+                .ownerEmail("jane@example.com")
+                .name("Quarterly report")
+                .type(SendType.FILE)
+                .expiresAt(LocalDateTime.now().plusDays(7))
+                .maxDownloads(5)
+                .downloadCount(1)
+                .createdAt(LocalDateTime.now())
+                .build();
+        send.setFile(FileMetadata.builder()
+                .id(UUID.randomUUID())
+                .send(send)
+                .filename("c2VjcmV0LnBkZg")
+                .storagePath(UUID.randomUUID().toString())
+                .sizeBytes(52_428_856L)
+                .chunkSize(26_214_400)
+                .build());
+    }
+
+    @Benchmark
+    public SendResponseDto toDto() {
+        return mapper.toDto(send);
+    }
+}
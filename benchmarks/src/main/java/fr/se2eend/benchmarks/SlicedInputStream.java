@@ -0,0 +1,34 @@
+package fr.se2eend.benchmarks;
+
+import java.io.InputStream;
+
+/**
+ * In-memory stream that never returns more than {@code sliceBytes} per read, like a socket.
+ */
+final class SlicedInputStream extends InputStream {
+
+    private final byte[] data;
+    private final int sliceBytes;
+    private int position;
+
+    SlicedInputStream(byte[] data, int sliceBytes) {
+        this.data = data;
+        this.sliceBytes = sliceBytes;
+    }
+
+    @Override
+    public int read() {
+        return position < data.length ? data[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (position >= data.length) {
+            return -1;
+        }
+        int n = Math.min(Math.min(len, sliceBytes), data.length - position);
+        System.arraycopy(data, position, b, off, n);
+        position += n;
+        return n;
+    }
+}
@@ -0,0 +1,108 @@
+package fr.se2eend.benchmarks;
+
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Inserts into an {@code upload_chunks}-shaped table keyed by random UUIDv4 (the keys before
+ * V16) or time-ordered UUIDv7 (what the entities now generate). The table is preloaded with
+ * {@code preloadRows} rows, so each measured batch lands in an index that no longer fits in the
+ * page cache; raise it with {@code -p preloadRows=20000000} for the production-scale numbers.
+ * <p>
+ * Uses a file-backed H2 database. The table size ({@code DISK_SPACE_USED}, which includes the
+ * primary key index) is printed at the end of each trial. On PostgreSQL the same comparison is
+ * {@code pg_relation_size} of the primary key index, with the same table and keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidKeyBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Param({"v4", "v7"})
+    public String keys;
+
+    @Param({"2000000"})
+    public long preloadRows;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<UUID> keyGenerator;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        keyGenerator = "v7".equals(keys)
+                ? () -> UuidVersion7Strategy.INSTANCE.generateUuid(null)
+                : UUID::randomUUID;
+        directory = Files.createTempDirectory("uuid-bench-");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db") + ";CACHE_SIZE=65536");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE upload_chunks (
+                        id          UUID    NOT NULL PRIMARY KEY,
+                        session_id  UUID    NOT NULL,
+                        chunk_index INTEGER NOT NULL,
+                        size_bytes  BIGINT  NOT NULL
+                    )""");
+        }
+        insert = connection.prepareStatement(
+                "INSERT INTO upload_chunks (id, session_id, chunk_index, size_bytes) VALUES (?, ?, ?, ?)");
+        for (long i = 0; i < preloadRows; i += BATCH) {
+            insertBatch();
+        }
+        inserted = 0;
+    }
+
+    /** One batch of {@value #BATCH} rows in one transaction, as a busy upload endpoint would commit them. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() throws SQLException {
+        UUID session = UUID.randomUUID();
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, keyGenerator.get());
+            insert.setObject(2, session);
+            insert.setInt(3, i);
+            insert.setLong(4, 26_214_428L);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+        inserted += BATCH;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT DISK_SPACE_USED('UPLOAD_CHUNKS'), COUNT(*) FROM upload_chunks")) {
+            rs.next();
+            System.out.printf("%n[%s] %,d rows, table and primary key: %,d bytes (%.1f bytes/row)%n",
+                    keys, rs.getLong(2), rs.getLong(1), (double) rs.getLong(1) / rs.getLong(2));
+        }
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
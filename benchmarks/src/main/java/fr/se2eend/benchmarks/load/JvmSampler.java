@@ -0,0 +1,64 @@
+package fr.se2eend.benchmarks.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+/**
+ * Heap and GC activity over a phase: peak heap is sampled every 50 ms, GC counts and times are
+ * deltas of the collector MXBeans. The client runs in the same JVM as the server, so these
+ * numbers include the load generator itself.
+ */
+final class JvmSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final long gcCountBefore;
+    private final long gcTimeBefore;
+    private final long heapBefore;
+    private final Thread sampler;
+    private volatile long peakHeap;
+    private volatile boolean running = true;
+
+    JvmSampler() {
+        gcCountBefore = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        gcTimeBefore = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        heapBefore = memory.getHeapMemoryUsage().getUsed();
+        peakHeap = heapBefore;
+        sampler = new Thread(this::sample, "load-jvm-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    private void sample() {
+        while (running) {
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if (used > peakHeap) {
+                peakHeap = used;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    Stats stats() {
+        long gcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCountBefore;
+        long gcTime = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcTimeBefore;
+        return new Stats(heapBefore >> 20, memory.getHeapMemoryUsage().getUsed() >> 20, peakHeap >> 20,
+                memory.getHeapMemoryUsage().getMax() >> 20, gcCount, gcTime);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        sampler.interrupt();
+        sampler.join();
+    }
+
+    record Stats(long heapStartMb, long heapEndMb, long heapPeakMb, long heapMaxMb,
+                 long gcCollections, long gcTimeMillis) {}
+}
@@ -0,0 +1,47 @@
+package fr.se2eend.benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects every latency sample of one operation during one phase. Samples are kept raw (not
+ * bucketed) so percentiles are exact; a phase produces at most a few million of them.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private String lastError;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized void error(String description) {
+        errors++;
+        lastError = description;
+    }
+
+    synchronized Summary summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / elapsedSeconds,
+                percentileMillis(sorted, 50), percentileMillis(sorted, 95), percentileMillis(sorted, 99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0, lastError);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, rank)] / 1_000_000.0;
+    }
+
+    record Summary(long count, long errors, double throughputPerSecond,
+                   double p50Millis, double p95Millis, double p99Millis, double maxMillis,
+                   String lastError) {}
+}
@@ -0,0 +1,113 @@
+package fr.se2eend.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP calls of the load scenario, made the way the frontend makes them.
+ */
+final class LoadClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+
+    LoadClient(int port) {
+        this.baseUrl = "http://localhost:" + port + "/api/v1";
+    }
+
+    record CreatedSend(String id, String accessId) {}
+
+    CreatedSend createSend(String token, int maxDownloads) throws IOException, InterruptedException {
+        JsonNode body = sendJson("POST", "/sends", token, Map.of(
+                "name", "load-test",
+                "type", "FILE",
+                "maxDownloads", maxDownloads,
+                "passwordProtected", false));
+        return new CreatedSend(body.get("id").asText(), body.get("accessId").asText());
+    }
+
+    String initUpload(String token, String sendId) throws IOException, InterruptedException {
+        return sendJson("POST", "/files/chunked/init", token,
+                Map.of("sendId", sendId, "filename", "load-test.bin")).get("sessionId").asText();
+    }
+
+    void uploadChunk(String token, String sessionId, int index, byte[] payload, int length)
+            throws IOException, InterruptedException {
+        HttpRequest request = authorized(token, "/files/chunked/" + sessionId + "/chunk/" + index)
+                .header("Content-Type", "application/octet-stream")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(payload, 0, length))
+                .build();
+        check(http.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    void completeUpload(String token, String sessionId, int totalChunks, int chunkSize)
+            throws IOException, InterruptedException {
+        sendJson("POST", "/files/chunked/" + sessionId + "/complete", token,
+                Map.of("totalChunks", totalChunks, "chunkSize", chunkSize));
+    }
+
+    /** Downloads the send and drains the body; returns the number of bytes read. */
+    long download(String accessId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/sends/" + accessId + "/download"))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            check(response);
+            long total = 0;
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    void publicLookup(String accessId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/sends/" + accessId)).GET().build();
+        check(http.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    void adminList(String adminToken, int page) throws IOException, InterruptedException {
+        HttpRequest request = authorized(adminToken, "/admin/sends?page=" + page + "&size=20").GET().build();
+        check(http.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private JsonNode sendJson(String method, String path, String token, Object payload)
+            throws IOException, InterruptedException {
+        HttpRequest request = authorized(token, path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(payload)))
+                .build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        check(response);
+        return MAPPER.readTree(response.body());
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private static void check(HttpResponse<?> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(response.request().method() + " " + response.request().uri().getPath()
+                    + " -> HTTP " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fr.se2eend.benchmarks.load;
+
+/**
+ * Operations a load worker can pick, weighted by the phase's {@code mix}.
+ */
+enum LoadOperation {
+    /** {@code POST /api/v1/sends} as a regular user. */
+    CREATE_SEND,
+    /** Create a send, then init + PUT every chunk + complete. Each chunk PUT is also timed as {@code upload-chunk}. */
+    CHUNKED_UPLOAD,
+    /** {@code GET /api/v1/sends/{accessId}/download} of a previously uploaded send, body fully read. */
+    DOWNLOAD,
+    /** {@code GET /api/v1/sends/{accessId}} (public metadata lookup). */
+    PUBLIC_LOOKUP,
+    /** {@code GET /api/v1/admin/sends} as an admin. */
+    ADMIN_LIST;
+
+    String label() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,63 @@
+package fr.se2eend.benchmarks.load;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load scenario, read from the {@code scenario} root of a YAML file (see {@code load/mixed.yml}).
+ *
+ * @param users        distinct owners the sends are spread across
+ * @param uploadSize   size of each chunked upload
+ * @param chunkSize    size of each chunk PUT
+ * @param maxDownloads download limit of uploaded sends (1-50); exhausted sends leave the download pool
+ * @param seedSends    sends uploaded before the first phase so downloads have something to fetch
+ * @param phases       phases run one after the other; a phase with {@code record: false} is warmup
+ */
+record LoadScenario(
+        @DefaultValue("load") String name,
+        @DefaultValue("10") int users,
+        @DefaultValue("8MB") DataSize uploadSize,
+        @DefaultValue("2MB") DataSize chunkSize,
+        @DefaultValue("50") int maxDownloads,
+        @DefaultValue("10") int seedSends,
+        List<Phase> phases
+) {
+
+    record Phase(
+            String name,
+            @DefaultValue("30s") Duration duration,
+            @DefaultValue("8") int concurrency,
+            Map<LoadOperation, Integer> mix,
+            @DefaultValue("true") boolean record
+    ) {}
+
+    static final String DEFAULT_LOCATION = "classpath:load/mixed.yml";
+
+    static LoadScenario load(String location) throws IOException {
+        Resource resource = location.startsWith("classpath:")
+                ? new ClassPathResource(location.substring("classpath:".length()))
+                : new FileSystemResource(location);
+        Binder binder = new Binder(ConfigurationPropertySources.from(
+                new YamlPropertySourceLoader().load(location, resource)));
+        LoadScenario scenario = binder.bind("scenario", LoadScenario.class)
+                .orElseThrow(() -> new IllegalArgumentException("No 'scenario' root in " + location));
+        if (scenario.phases() == null || scenario.phases().isEmpty()) {
+            throw new IllegalArgumentException("Scenario " + scenario.name() + " has no phases");
+        }
+        if (scenario.maxDownloads() < 1 || scenario.maxDownloads() > 50) {
+            throw new IllegalArgumentException("max-downloads must be between 1 and 50");
+        }
+        return scenario;
+    }
+}
@@ -0,0 +1,61 @@
+package fr.se2eend.benchmarks.load;
+
+import fr.se2eend.backend.SE2EEndApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the real backend on a random port with the same stand-ins as {@code application-test.yml}:
+ * H2 in PostgreSQL mode instead of PostgreSQL, local storage in a temp directory, and a
+ * {@link JwtDecoder} trusting {@link LocalTokenIssuer} instead of Keycloak.
+ */
+final class LoadTestApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private LoadTestApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static LoadTestApplication start(LocalTokenIssuer issuer, Path storageDir) {
+        // Passed as command-line arguments so they override the backend's application.yml.
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=KEY");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.properties.hibernate.auto_quote_keyword", true);
+        properties.put("spring.flyway.enabled", false);
+        properties.put("spring.autoconfigure.exclude",
+                "org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration");
+        properties.put("storage.provider", "local");
+        properties.put("storage.base-dir", storageDir.toString());
+        properties.put("logging.level.root", "WARN");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SE2EEndApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("jwtDecoder", issuer.decoder()))
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+        return new LoadTestApplication(context);
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,226 @@
+package fr.se2eend.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import fr.se2eend.benchmarks.BenchmarkFiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load generator: boots the backend with local stand-ins (see {@link LoadTestApplication}),
+ * then runs the phases of a {@link LoadScenario} and reports latency percentiles, throughput and
+ * heap/GC activity per phase and operation.
+ * <p>
+ * Heap and GC figures are per phase: to attribute them to a single operation, give that operation
+ * its own phase with a single-entry {@code mix}.
+ */
+public final class LoadTestRunner {
+
+    private static final String DEFAULT_REPORT = "load-report.json";
+
+    private final LoadScenario scenario;
+    private final LoadClient client;
+    private final List<String> userTokens;
+    private final String adminToken;
+    private final SendPool pool = new SendPool();
+    private final byte[] chunkPayload;
+
+    private LoadTestRunner(LoadScenario scenario, LoadClient client, List<String> userTokens, String adminToken) {
+        this.scenario = scenario;
+        this.client = client;
+        this.userTokens = userTokens;
+        this.adminToken = adminToken;
+        this.chunkPayload = new byte[(int) scenario.chunkSize().toBytes()];
+        ThreadLocalRandom.current().nextBytes(chunkPayload);
+    }
+
+    /** {@code load [scenario.yml|classpath:...] [--report=load-report.json]} */
+    public static int run(String[] args) throws Exception {
+        String location = LoadScenario.DEFAULT_LOCATION;
+        Path reportPath = Path.of(DEFAULT_REPORT);
+        for (String arg : args) {
+            if (arg.startsWith("--report=")) {
+                reportPath = Path.of(arg.substring("--report=".length()));
+            } else {
+                location = arg;
+            }
+        }
+        LoadScenario scenario = LoadScenario.load(location);
+
+        LocalTokenIssuer issuer = new LocalTokenIssuer();
+        List<String> userTokens = new ArrayList<>();
+        for (int i = 0; i < scenario.users(); i++) {
+            userTokens.add(issuer.mint(UUID.randomUUID(), "load-user-" + i, List.of("user")));
+        }
+        String adminToken = issuer.mint(UUID.randomUUID(), "load-admin", List.of("user", "admin"));
+
+        Path storageDir = Files.createTempDirectory("se2eend-load");
+        try (LoadTestApplication app = LoadTestApplication.start(issuer, storageDir)) {
+            LoadTestRunner runner = new LoadTestRunner(scenario, new LoadClient(app.port()), userTokens, adminToken);
+            Report report = runner.execute();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+            System.out.println("Report written to " + reportPath.toAbsolutePath());
+            return report.phases().stream()
+                    .anyMatch(phase -> phase.operations().values().stream().anyMatch(op -> op.errors() > 0)) ? 1 : 0;
+        } finally {
+            BenchmarkFiles.deleteRecursively(storageDir);
+        }
+    }
+
+    private Report execute() throws Exception {
+        Map<String, LatencyRecorder> seedRecorders = new ConcurrentHashMap<>();
+        for (int i = 0; i < scenario.seedSends(); i++) {
+            chunkedUpload(seedRecorders);
+        }
+
+        List<PhaseResult> results = new ArrayList<>();
+        for (LoadScenario.Phase phase : scenario.phases()) {
+            PhaseResult result = runPhase(phase);
+            if (phase.record()) {
+                results.add(result);
+            }
+            print(result, phase.record());
+        }
+        return new Report(scenario.name(), results);
+    }
+
+    private PhaseResult runPhase(LoadScenario.Phase phase) throws Exception {
+        LoadOperation[] operations = phase.mix().keySet().toArray(LoadOperation[]::new);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += phase.mix().get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        int weightBound = totalWeight;
+
+        Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + phase.duration().toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(phase.concurrency());
+        JvmSampler jvm = new JvmSampler();
+        long start = System.nanoTime();
+        try {
+            for (int w = 0; w < phase.concurrency(); w++) {
+                workers.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        int pick = random.nextInt(weightBound);
+                        int i = 0;
+                        while (cumulativeWeights[i] <= pick) {
+                            i++;
+                        }
+                        perform(operations[i], recorders);
+                    }
+                });
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(phase.duration().toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } finally {
+            jvm.close();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, LatencyRecorder.Summary> summaries = new TreeMap<>();
+        recorders.forEach((name, recorder) -> summaries.put(name, recorder.summarize(elapsedSeconds)));
+        return new PhaseResult(phase.name(), elapsedSeconds, phase.concurrency(), jvm.stats(), summaries);
+    }
+
+    private void perform(LoadOperation operation, Map<String, LatencyRecorder> recorders) {
+        if (operation == LoadOperation.CHUNKED_UPLOAD) {
+            chunkedUpload(recorders);
+            return;
+        }
+        String accessId = switch (operation) {
+            case DOWNLOAD -> pool.take();
+            case PUBLIC_LOOKUP -> pool.peek();
+            default -> "";
+        };
+        if (accessId == null) {
+            // Every uploaded send is exhausted: upload a fresh one (timed as an upload) instead.
+            chunkedUpload(recorders);
+            return;
+        }
+
+        LatencyRecorder recorder = recorders.computeIfAbsent(operation.label(), k -> new LatencyRecorder());
+        long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case CREATE_SEND -> client.createSend(randomUserToken(), scenario.maxDownloads());
+                case DOWNLOAD -> client.download(accessId);
+                case PUBLIC_LOOKUP -> client.publicLookup(accessId);
+                case ADMIN_LIST -> client.adminList(adminToken, ThreadLocalRandom.current().nextInt(5));
+                default -> throw new IllegalStateException(operation.name());
+            }
+            recorder.record(System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recorder.error(e.getMessage());
+        }
+    }
+
+    private void chunkedUpload(Map<String, LatencyRecorder> recorders) {
+        LatencyRecorder recorder = recorders.computeIfAbsent(LoadOperation.CHUNKED_UPLOAD.label(), k -> new LatencyRecorder());
+        LatencyRecorder chunkRecorder = recorders.computeIfAbsent("upload-chunk", k -> new LatencyRecorder());
+        String token = randomUserToken();
+        long start = System.nanoTime();
+        try {
+            LoadClient.CreatedSend send = client.createSend(token, scenario.maxDownloads());
+            String sessionId = client.initUpload(token, send.id());
+            long remaining = scenario.uploadSize().toBytes();
+            int index = 0;
+            while (remaining > 0) {
+                int length = (int) Math.min(chunkPayload.length, remaining);
+                long chunkStart = System.nanoTime();
+                client.uploadChunk(token, sessionId, index++, chunkPayload, length);
+                chunkRecorder.record(System.nanoTime() - chunkStart);
+                remaining -= length;
+            }
+            client.completeUpload(token, sessionId, index, chunkPayload.length);
+            recorder.record(System.nanoTime() - start);
+            pool.add(send.accessId(), scenario.maxDownloads());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recorder.error(e.getMessage());
+        }
+    }
+
+    private String randomUserToken() {
+        return userTokens.get(ThreadLocalRandom.current().nextInt(userTokens.size()));
+    }
+
+    private static void print(PhaseResult result, boolean recorded) {
+        JvmSampler.Stats jvm = result.jvm();
+        System.out.printf("%n== %s%s: %.1f s, %d workers | heap start/peak/end %d/%d/%d MB (max %d) | GC %d collections, %d ms%n",
+                result.name(), recorded ? "" : " (warmup, not reported)", result.elapsedSeconds(), result.concurrency(),
+                jvm.heapStartMb(), jvm.heapPeakMb(), jvm.heapEndMb(), jvm.heapMaxMb(), jvm.gcCollections(), jvm.gcTimeMillis());
+        System.out.printf("%-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        result.operations().forEach((name, s) -> {
+            System.out.printf("%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    name, s.count(), s.errors(), s.throughputPerSecond(), s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis());
+            if (s.lastError() != null) {
+                System.out.println("    last error: " + s.lastError());
+            }
+        });
+    }
+
+    record PhaseResult(String name, double elapsedSeconds, int concurrency, JvmSampler.Stats jvm,
+                       Map<String, LatencyRecorder.Summary> operations) {}
+
+    record Report(String scenario, List<PhaseResult> phases) {}
+}
@@ -0,0 +1,41 @@
+package fr.se2eend.benchmarks.load;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploaded sends still downloadable. Each {@link #take()} consumes one download; a send leaves
+ * the pool once its limit is reached so downloads never hit the 410 path by accident.
+ */
+final class SendPool {
+
+    private final Queue<Entry> sends = new ConcurrentLinkedQueue<>();
+
+    void add(String accessId, int maxDownloads) {
+        sends.add(new Entry(accessId, new AtomicInteger(maxDownloads)));
+    }
+
+    /** Access id to download, or {@code null} if every uploaded send is exhausted. */
+    String take() {
+        Entry entry;
+        while ((entry = sends.poll()) != null) {
+            int left = entry.remaining().decrementAndGet();
+            if (left >= 0) {
+                if (left > 0) {
+                    sends.add(entry);
+                }
+                return entry.accessId();
+            }
+        }
+        return null;
+    }
+
+    /** Access id for a read-only lookup, without consuming a download. */
+    String peek() {
+        Entry entry = sends.peek();
+        return entry == null ? null : entry.accessId();
+    }
+
+    private record Entry(String accessId, AtomicInteger remaining) {}
+}
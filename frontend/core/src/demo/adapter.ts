@@ -51,7 +51,8 @@ export function installDemoAdapter(): void {
 
       if (method === 'GET' && url === '/sends') {
         const sends = await listOwnerSends();
-        return ok(sends, config);
+        // Demo data is local: the first cursor page holds everything.
+        return ok({ content: sends, nextCursor: null, totalElements: null, totalExact: false }, config);
       }
 
       if (method === 'POST' && url === '/sends') {
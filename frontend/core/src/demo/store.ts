@@ -199,15 +199,13 @@ export async function getAdminSends(
 export async function getStats(): Promise<AdminStats> {
   const sends = await listAllSends();
   const now = new Date();
-  const active = sends.filter(
-    (s) =>
-      !s.revoked &&
-      !(s.expiresAt && new Date(s.expiresAt) < now) &&
-      s.downloadCount < s.maxDownloads,
-  ).length;
+  const expired = (s: DemoSendRecord) => !!s.expiresAt && new Date(s.expiresAt) < now;
+  const live = sends.filter((s) => !s.revoked && !expired(s));
   return {
     totalSends: sends.length,
-    activeSends: active,
+    activeSends: live.filter((s) => s.downloadCount < s.maxDownloads).length,
+    expiredSends: sends.filter((s) => !s.revoked && expired(s)).length,
+    exhaustedSends: live.filter((s) => s.downloadCount >= s.maxDownloads).length,
     revokedSends: sends.filter((s) => s.revoked).length,
     totalFiles: sends.filter((s) => !!s.file).length,
   };
@@ -30,6 +30,8 @@ export interface PagedResponse<T> {
 export interface AdminStats {
   totalSends: number;
   activeSends: number;
+  expiredSends: number;
+  exhaustedSends: number;
   revokedSends: number;
   totalFiles: number;
 }
@@ -1,6 +1,14 @@
+import axios from 'axios';
 import api from './http';
 import keycloak from '../keycloak';
 
+/** Attempts per chunk while the server asks to retry later. */
+const MAX_CHUNK_ATTEMPTS = 60;
+/** Wait between attempts when a 503 carries no usable Retry-After, in seconds. */
+const DEFAULT_CHUNK_RETRY_AFTER = 5;
+/** Largest page the owner listing serves. */
+const SENDS_PAGE_SIZE = 100;
+
 export interface SendCreateRequest {
   name?: string;
   type: 'FILE' | 'TEXT';
@@ -27,6 +35,14 @@ export interface SendResponse {
   file?: FileMetadata;
 }
 
+// Mirrors the backend CursorPage: pass nextCursor back as `cursor` until it is null.
+export interface CursorPage<T> {
+  content: T[];
+  nextCursor: string | null;
+  totalElements: number | null;
+  totalExact: boolean;
+}
+
 // Field names mirror the backend FileMetadataDto exactly (id / sizeBytes / chunkSize).
 export interface FileMetadata {
   id: string;
@@ -36,9 +52,18 @@ export interface FileMetadata {
 }
 
 export const sendApi = {
+  // Walks every cursor page: the unpaged GET /sends stops at the newest sends.
   getAllSends: async (): Promise<SendResponse[]> => {
-    const response = await api.get('/sends');
-    return response.data;
+    const sends: SendResponse[] = [];
+    let cursor = '';
+    do {
+      const response = await api.get<CursorPage<SendResponse>>('/sends', {
+        params: { cursor, size: SENDS_PAGE_SIZE },
+      });
+      sends.push(...response.data.content);
+      cursor = response.data.nextCursor ?? '';
+    } while (cursor);
+    return sends;
   },
 
   createSend: async (data: SendCreateRequest): Promise<SendResponse> => {
@@ -109,9 +134,22 @@ export const sendApi = {
   },
 
   uploadChunk: async (sessionId: string, chunkIndex: number, chunk: Uint8Array): Promise<void> => {
-    await api.put(`/files/chunked/${sessionId}/chunk/${chunkIndex}`, chunk, {
-      headers: { 'Content-Type': 'application/octet-stream' },
-    });
+    // 503 + Retry-After: the server's upload staging area is full for now.
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await api.put(`/files/chunked/${sessionId}/chunk/${chunkIndex}`, chunk, {
+          headers: { 'Content-Type': 'application/octet-stream' },
+        });
+        return;
+      } catch (error) {
+        if (!axios.isAxiosError(error) || error.response?.status !== 503 || attempt >= MAX_CHUNK_ATTEMPTS) {
+          throw error;
+        }
+        const retryAfter = Number(error.response.headers['retry-after']);
+        const delay = Number.isFinite(retryAfter) && retryAfter >= 0 ? retryAfter : DEFAULT_CHUNK_RETRY_AFTER;
+        await new Promise((resolve) => setTimeout(resolve, delay * 1000));
+      }
+    }
   },
 
   completeChunkedUpload: async (sessionId: string, totalChunks: number, chunkSize: number): Promise<FileMetadata> => {